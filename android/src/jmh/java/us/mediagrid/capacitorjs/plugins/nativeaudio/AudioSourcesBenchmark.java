@@ -0,0 +1,86 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Registry lookups, which every plugin method does at least once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioSourcesBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int sourceCount;
+
+    private AudioSources audioSources;
+    private String[] ids;
+    private int next = 0;
+
+    @Setup
+    public void setUp() throws Exception {
+        audioSources = new AudioSources();
+        ids = new String[sourceCount];
+
+        for (int i = 0; i < sourceCount; i++) {
+            ids[i] = "source-" + i;
+
+            AudioSource source = BenchmarkPlayers.source(ids[i], i == 0, i % 10 == 0);
+            audioSources.add(source);
+
+            // A quarter playing, like a few loops under a playing notification source
+            if (i % 4 == 0) {
+                source.setIsPlaying();
+            }
+        }
+    }
+
+    @Benchmark
+    public AudioSource get() {
+        next = (next + 1) % ids.length;
+
+        return audioSources.get(ids[next]);
+    }
+
+    @Benchmark
+    public boolean exists() {
+        next = (next + 1) % ids.length;
+
+        return audioSources.exists(ids[next]);
+    }
+
+    @Benchmark
+    public AudioSource forNotification() {
+        return audioSources.forNotification();
+    }
+
+    @Benchmark
+    public List<AudioSource> withStatusPlaying() {
+        return audioSources.withStatus("playing");
+    }
+
+    @Benchmark
+    public List<AudioSource> backgroundMusic() {
+        return audioSources.backgroundMusic();
+    }
+
+    @Benchmark
+    public List<AudioSource> all() {
+        return audioSources.all();
+    }
+}
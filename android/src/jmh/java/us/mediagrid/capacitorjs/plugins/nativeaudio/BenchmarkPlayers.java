@@ -0,0 +1,78 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import androidx.media3.common.PlaybackParameters;
+import androidx.media3.common.Player;
+import java.lang.reflect.Proxy;
+
+/**
+ * Players and sources for the benchmarks. There's no real player on the JVM, so the player is
+ * a proxy answering the getters the plugin reads with a playing state.
+ */
+final class BenchmarkPlayers {
+
+    private BenchmarkPlayers() {}
+
+    static Player playing() {
+        return (Player) Proxy.newProxyInstance(
+            Player.class.getClassLoader(),
+            new Class<?>[] { Player.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getPlaybackState":
+                        return Player.STATE_READY;
+                    case "getPlayWhenReady":
+                    case "isPlaying":
+                        return true;
+                    case "getCurrentPosition":
+                        return 42_000L;
+                    case "getDuration":
+                        return 180_000L;
+                    case "getBufferedPosition":
+                        return 60_000L;
+                    case "getPlaybackParameters":
+                        return PlaybackParameters.DEFAULT;
+                    case "getVolume":
+                        return 1f;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            }
+        );
+    }
+
+    static AudioSource source(String id, boolean useForNotification, boolean isBackgroundMusic) {
+        return new AudioSource(
+            null,
+            id,
+            "https://example.com/" + id + ".mp3",
+            new AudioMetadata("Album " + id, "Artist " + id, "Song " + id, null, null, null),
+            useForNotification,
+            isBackgroundMusic,
+            false
+        );
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+
+        if (type == int.class) {
+            return 0;
+        }
+
+        if (type == long.class) {
+            return 0L;
+        }
+
+        if (type == float.class) {
+            return 0f;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import androidx.media3.common.MediaItem;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the media item and its metadata, done on the main thread for every initialize and
+ * source change. Artwork loading is left out, it needs the app's assets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MediaItemBenchmark {
+
+    private AudioSource audioSource;
+
+    @Setup
+    public void setUp() {
+        audioSource = BenchmarkPlayers.source("music", false, true);
+    }
+
+    @Benchmark
+    public MediaItem buildMediaItem() {
+        return audioSource.buildMediaItem();
+    }
+
+    @Benchmark
+    public AudioMetadata metadataSnapshot() {
+        return audioSource.audioMetadata.snapshot();
+    }
+}
@@ -0,0 +1,52 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import com.getcapacitor.JSObject;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Handling a `metadataUpdateUrl` response, as done by the {@link MetadataFeed} for every
+ * changed response or stream event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataParsingBenchmark {
+
+    private static final String RESPONSE =
+        "{\"album_title\":\"Live from the Studio\",\"artist_name\":\"The Example Band\"," +
+        "\"song_title\":\"An Example Song (Radio Edit)\"," +
+        "\"artwork_source\":\"https://example.com/artwork/1200x1200.png\"," +
+        "\"listeners\":1234,\"started_at\":\"2025-01-01T12:00:00Z\"}";
+
+    private AudioMetadata audioMetadata;
+
+    @Setup
+    public void setUp() {
+        audioMetadata = new AudioMetadata(null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public JSObject parse() throws Exception {
+        return MetadataFeed.parseResponse(RESPONSE);
+    }
+
+    @Benchmark
+    public AudioMetadata parseAndApply() throws Exception {
+        audioMetadata.applyUpdate(MetadataFeed.parseResponse(RESPONSE));
+
+        return audioMetadata;
+    }
+}
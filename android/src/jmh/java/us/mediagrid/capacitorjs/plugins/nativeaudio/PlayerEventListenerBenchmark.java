@@ -0,0 +1,72 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import androidx.media3.common.Player;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The work done on the main thread for each player event: the status change, the snapshot
+ * and the registry index update. No JS callbacks are registered, so no bridge calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerEventListenerBenchmark {
+
+    private Player player;
+    private PlayerEventListener listener;
+
+    @Setup
+    public void setUp() throws Exception {
+        AudioSources audioSources = new AudioSources();
+        AudioSource audioSource = BenchmarkPlayers.source("music", false, true);
+
+        player = BenchmarkPlayers.playing();
+        audioSource.setPlayer(player);
+        audioSources.add(audioSource);
+
+        listener = new PlayerEventListener(new BenchmarkPlugin(), audioSource);
+    }
+
+    @Benchmark
+    public void isPlayingChanged() {
+        listener.onIsPlayingChanged(true);
+    }
+
+    @Benchmark
+    public void events() {
+        // The listener doesn't look at which events happened
+        listener.onEvents(player, null);
+    }
+
+    @Benchmark
+    public void playbackStateReady() {
+        listener.onPlaybackStateChanged(Player.STATE_READY);
+    }
+
+    /**
+     * A plugin that was never loaded has no ticker, give it one with nothing to tick.
+     */
+    private static class BenchmarkPlugin extends AudioPlayerPlugin {
+
+        private final TimeUpdateTicker ticker = new TimeUpdateTicker(this, ArrayList::new);
+
+        @Override
+        public TimeUpdateTicker getTimeUpdateTicker() {
+            return ticker;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+import android.util.LruCache;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A process-wide, byte-budgeted LRU cache of in-app (asset) artwork.
+ *
+ * Artwork is downsampled to notification size and re-encoded once, then the same bytes are
+ * handed out on every metadata update instead of re-reading the asset.
+ */
+public class ArtworkCache {
+
+    private static final String TAG = "ArtworkCache";
+    private static final int JPEG_QUALITY = 90;
+
+    private static ArtworkCache instance = null;
+
+    private final Context context;
+    private final int maxDimension;
+    private final long assetsStamp;
+    private final LruCache<String, byte[]> cache;
+
+    ArtworkCache(Context context, int maxBytes, int maxDimension) {
+        this.context = context;
+        this.maxDimension = maxDimension;
+        this.assetsStamp = getAssetsStamp(context);
+        this.cache = new LruCache<>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, byte[] value) {
+                return value.length;
+            }
+        };
+    }
+
+    public static synchronized ArtworkCache getInstance(Context context) {
+        if (instance == null) {
+            AudioPlayerConfig config = AudioPlayerConfig.load(context);
+
+            instance = new ArtworkCache(
+                context.getApplicationContext(),
+                config.getArtworkCacheMaxBytes(),
+                config.getArtworkMaxDimension()
+            );
+        }
+
+        return instance;
+    }
+
+    public byte[] getAssetArtwork(String artworkSource) throws IOException {
+        // Assets can only change with an app update, so that is the modification stamp
+        String key = artworkSource + "@" + assetsStamp;
+        byte[] artwork = cache.get(key);
+
+        if (artwork != null) {
+            return artwork;
+        }
+
+        artwork = downsample(readAsset("public/" + artworkSource));
+        cache.put(key, artwork);
+
+        return artwork;
+    }
+
+    private byte[] readAsset(String path) throws IOException {
+        try (InputStream inputStream = context.getAssets().open(path)) {
+            int bufferLength = 4 * 0x400; // 4KB
+            byte[] buffer = new byte[bufferLength];
+            int readLength;
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+            while ((readLength = inputStream.read(buffer, 0, bufferLength)) != -1) {
+                outputStream.write(buffer, 0, readLength);
+            }
+
+            return outputStream.toByteArray();
+        }
+    }
+
+    private byte[] downsample(byte[] original) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(original, 0, original.length, options);
+
+        int largestDimension = Math.max(options.outWidth, options.outHeight);
+
+        if (largestDimension <= 0) {
+            Log.w(TAG, "Could not decode the artwork, using it as is.");
+
+            return original;
+        }
+
+        if (largestDimension <= maxDimension) {
+            return original;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = 1;
+
+        while (largestDimension / (options.inSampleSize * 2) >= maxDimension) {
+            options.inSampleSize *= 2;
+        }
+
+        Bitmap decoded = BitmapFactory.decodeByteArray(original, 0, original.length, options);
+
+        if (decoded == null) {
+            return original;
+        }
+
+        float scale = (float) maxDimension / Math.max(decoded.getWidth(), decoded.getHeight());
+        Bitmap scaled = scale < 1
+            ? Bitmap.createScaledBitmap(
+                decoded,
+                Math.round(decoded.getWidth() * scale),
+                Math.round(decoded.getHeight() * scale),
+                true
+            )
+            : decoded;
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        scaled.compress(
+            scaled.hasAlpha() ? Bitmap.CompressFormat.PNG : Bitmap.CompressFormat.JPEG,
+            JPEG_QUALITY,
+            outputStream
+        );
+
+        if (scaled != decoded) {
+            scaled.recycle();
+        }
+
+        decoded.recycle();
+
+        byte[] downsampled = outputStream.toByteArray();
+
+        return downsampled.length < original.length ? downsampled : original;
+    }
+
+    private static long getAssetsStamp(Context context) {
+        try {
+            return context
+                .getPackageManager()
+                .getPackageInfo(context.getPackageName(), 0)
+                .lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException ex) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
+import android.os.Bundle;
+import android.util.LruCache;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.ByteArrayDataSource;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.TransferListener;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A process-wide, byte-budgeted LRU cache of small local audio files (assets and files).
+ *
+ * Looping and frequently replayed sources are read from memory on every prepare and seek
+ * instead of going back to the APK or disk. Files over the size threshold are never cached
+ * and keep streaming from disk.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class AssetByteCache {
+
+    private static final String ANDROID_ASSET_PATH = "/android_asset/";
+
+    private static AssetByteCache instance = null;
+
+    private final Context context;
+    private final int maxBytes;
+    private final long maxFileBytes;
+    private final LruCache<String, byte[]> cache;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong tooLargeCount = new AtomicLong();
+
+    AssetByteCache(Context context, int maxBytes, long maxFileBytes) {
+        this.context = context;
+        this.maxBytes = maxBytes;
+        this.maxFileBytes = maxFileBytes;
+        // LruCache needs a positive size, a budget of 0 disables caching in get()
+        this.cache = new LruCache<>(Math.max(1, maxBytes)) {
+            @Override
+            protected int sizeOf(String key, byte[] value) {
+                return value.length;
+            }
+        };
+    }
+
+    public static synchronized AssetByteCache getInstance(Context context) {
+        if (instance == null) {
+            AudioPlayerConfig config = AudioPlayerConfig.load(context);
+
+            instance = new AssetByteCache(
+                context.getApplicationContext(),
+                config.getAssetCacheMaxBytes(),
+                config.getAssetCacheMaxFileBytes()
+            );
+        }
+
+        return instance;
+    }
+
+    /**
+     * Wraps the upstream factory, serving small local files from the cache.
+     */
+    public DataSource.Factory createDataSourceFactory(DataSource.Factory upstreamFactory) {
+        return () -> new CachingDataSource(upstreamFactory.createDataSource());
+    }
+
+    public Bundle getStats() {
+        Bundle stats = new Bundle();
+        stats.putLong("maxBytes", maxBytes);
+        stats.putLong("maxFileBytes", maxFileBytes);
+        stats.putLong("usedBytes", cache.size());
+        stats.putInt("entries", cache.snapshot().size());
+        stats.putLong("hits", hitCount.get());
+        stats.putLong("misses", missCount.get());
+        stats.putLong("tooLarge", tooLargeCount.get());
+
+        return stats;
+    }
+
+    public void clear() {
+        cache.evictAll();
+    }
+
+    /**
+     * The cached bytes of a local file, loading them on a miss. `null` if the URI isn't a
+     * local file or is over the size threshold.
+     */
+    @Nullable
+    byte[] get(Uri uri) throws IOException {
+        if (maxBytes <= 0) {
+            return null;
+        }
+
+        String assetPath = getAssetPath(uri);
+        File file = assetPath == null ? getFile(uri) : null;
+
+        if (assetPath == null && file == null) {
+            return null;
+        }
+
+        // Assets only change with an app update, which restarts the process
+        String key = assetPath != null
+            ? "asset:" + assetPath
+            : file.getPath() + "@" + file.lastModified();
+        byte[] bytes = cache.get(key);
+
+        if (bytes != null) {
+            hitCount.incrementAndGet();
+
+            return bytes;
+        }
+
+        long length = assetPath != null ? getAssetLength(assetPath) : file.length();
+
+        // Unknown length is a compressed asset, which isn't worth holding in memory either
+        if (length < 0 || length > Math.min(maxFileBytes, maxBytes)) {
+            tooLargeCount.incrementAndGet();
+
+            return null;
+        }
+
+        missCount.incrementAndGet();
+
+        try (
+            InputStream inputStream = assetPath != null
+                ? context.getAssets().open(assetPath)
+                : new FileInputStream(file)
+        ) {
+            bytes = readFully(inputStream, (int) length);
+        }
+
+        cache.put(key, bytes);
+
+        return bytes;
+    }
+
+    @Nullable
+    private static String getAssetPath(Uri uri) {
+        String scheme = uri.getScheme();
+        String path = uri.getPath();
+
+        if (path == null) {
+            return null;
+        }
+
+        if ("asset".equals(scheme)) {
+            return path.startsWith("/") ? path.substring(1) : path;
+        }
+
+        if ("file".equals(scheme) && path.startsWith(ANDROID_ASSET_PATH)) {
+            return path.substring(ANDROID_ASSET_PATH.length());
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private static File getFile(Uri uri) {
+        String scheme = uri.getScheme();
+
+        if ((scheme != null && !scheme.equals("file")) || uri.getPath() == null) {
+            return null;
+        }
+
+        File file = new File(uri.getPath());
+
+        return file.isFile() ? file : null;
+    }
+
+    private long getAssetLength(String assetPath) {
+        try (AssetFileDescriptor descriptor = context.getAssets().openFd(assetPath)) {
+            return descriptor.getLength();
+        } catch (IOException ex) {
+            // Compressed in the APK
+            return -1;
+        }
+    }
+
+    private static byte[] readFully(InputStream inputStream, int length) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(length);
+        byte[] buffer = new byte[16 * 1024];
+        int readLength;
+
+        while ((readLength = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, readLength);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Reads from a {@link ByteArrayDataSource} over the cached bytes when the file is cacheable,
+     * otherwise from the upstream data source.
+     */
+    private class CachingDataSource implements DataSource {
+
+        private final DataSource upstream;
+        private final List<TransferListener> transferListeners = new ArrayList<>();
+
+        private DataSource current = null;
+
+        CachingDataSource(DataSource upstream) {
+            this.upstream = upstream;
+        }
+
+        @Override
+        public void addTransferListener(TransferListener transferListener) {
+            upstream.addTransferListener(transferListener);
+            transferListeners.add(transferListener);
+        }
+
+        @Override
+        public long open(DataSpec dataSpec) throws IOException {
+            byte[] bytes = get(dataSpec.uri);
+
+            if (bytes == null) {
+                current = upstream;
+            } else {
+                ByteArrayDataSource byteArrayDataSource = new ByteArrayDataSource(bytes);
+
+                for (TransferListener transferListener : transferListeners) {
+                    byteArrayDataSource.addTransferListener(transferListener);
+                }
+
+                current = byteArrayDataSource;
+            }
+
+            return current.open(dataSpec);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return current.read(buffer, offset, length);
+        }
+
+        @Nullable
+        @Override
+        public Uri getUri() {
+            return current == null ? null : current.getUri();
+        }
+
+        @Override
+        public Map<String, List<String>> getResponseHeaders() {
+            return current == null ? upstream.getResponseHeaders() : current.getResponseHeaders();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (current != null) {
+                try {
+                    current.close();
+                } finally {
+                    current = null;
+                }
+            }
+        }
+    }
+}
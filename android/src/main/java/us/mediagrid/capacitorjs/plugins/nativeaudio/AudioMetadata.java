@@ -1,14 +1,8 @@
 package us.mediagrid.capacitorjs.plugins.nativeaudio;
 
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.PluginCall;
-import com.getcapacitor.plugin.util.HttpRequestHandler;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 
 public class AudioMetadata {
 
@@ -20,13 +14,15 @@ public class AudioMetadata {
     public String artworkSource;
     public String updateUrl;
     public Integer updateInterval = 15;
+    public Integer backgroundUpdateInterval = 60;
+    public MetadataFeed.Mode updateMode = MetadataFeed.Mode.POLL;
+    // Take the metadata from the stream (ICY/ID3) instead of `updateUrl`
+    public boolean fromStream = false;
 
     private String onMetadataUpdateCallbackId;
 
-    private Handler updateHandler = null;
-    private Runnable updateRunner = null;
     private Runnable updateCallback = null;
-    private JSObject updateFullResponse;
+    private boolean isSubscribed = false;
 
     private AudioPlayerPlugin pluginOwner;
 
@@ -49,13 +45,17 @@ public class AudioMetadata {
         }
     }
 
-    public void update(AudioMetadata metadata) {
+    public synchronized void update(AudioMetadata metadata) {
         albumTitle = metadata.albumTitle;
         artistName = metadata.artistName;
         songTitle = metadata.songTitle;
         artworkSource = metadata.artworkSource;
     }
 
+    public synchronized AudioMetadata snapshot() {
+        return new AudioMetadata(albumTitle, artistName, songTitle, artworkSource, null, null);
+    }
+
     public AudioMetadata setPluginOwner(AudioPlayerPlugin plugin) {
         pluginOwner = plugin;
 
@@ -73,119 +73,111 @@ public class AudioMetadata {
     }
 
     public void startUpdater() {
-        if (!hasUpdateUrl() || updateHandler != null) {
+        if (!hasUpdateUrl() || fromStream || isSubscribed) {
             return;
         }
 
         Log.i(TAG, "Starting metadata updater...");
 
-        updateHandler = new Handler(Looper.getMainLooper());
-        updateRunner = new Runnable() {
-            @Override
-            public void run() {
-                updateMetadataByUrl(() -> updateHandler.postDelayed(this, updateInterval * 1000));
-            }
-        };
-
-        updateHandler.post(updateRunner);
+        isSubscribed = true;
+        pluginOwner.getMetadataPoller().subscribe(this);
     }
 
     public void stopUpdater() {
-        if (updateHandler == null) {
+        if (!isSubscribed) {
             return;
         }
 
         Log.i(TAG, "Stopping metadata updater...");
 
-        updateHandler.removeCallbacks(updateRunner);
-        updateHandler = null;
-        updateRunner = null;
+        isSubscribed = false;
+        pluginOwner.getMetadataPoller().unsubscribe(this);
     }
 
     public boolean hasUpdateUrl() {
         return updateUrl != null && updateUrl != "";
     }
 
-    public void updateMetadataByUrl(Runnable requeueCallback) {
-        if (pluginOwner.executorService.isShutdown()) {
-            return;
-        }
-
-        pluginOwner.executorService.submit(() -> {
-            try {
-                if (!makeUpdateRequest()) {
-                    return;
-                }
-
-                if (updateCallback != null) {
-                    // Updating the MediaController needs to be on the main thread
-                    new Handler(Looper.getMainLooper()).post(() -> {
-                        updateCallback.run();
-                    });
-                }
-
-                if (onMetadataUpdateCallbackId != null) {
-                    PluginCall call = pluginOwner
-                        .getBridge()
-                        .getSavedCall(onMetadataUpdateCallbackId);
-
-                    if (call != null) {
-                        call.resolve(updateFullResponse);
-                    }
-                }
-            } catch (Exception ex) {
-                Log.e(TAG, "There was an error running the metadata update", ex);
-            }
-
-            if (requeueCallback != null) {
-                requeueCallback.run();
-            }
-        });
+    public void updateMetadataByUrl() {
+        pluginOwner.getMetadataPoller().refresh(this);
     }
 
-    private boolean makeUpdateRequest() {
-        Log.i(TAG, "Getting metadata from URL " + updateUrl);
-        HttpURLConnection urlConnection = null;
-
+    /**
+     * Called by the {@link MetadataPoller} on one of its threads when the metadata at
+     * `updateUrl` changed.
+     */
+    public void applyUpdate(JSObject json) {
         try {
-            URL url = new URL(updateUrl);
-            urlConnection = (HttpURLConnection) url.openConnection();
-            urlConnection.setRequestProperty("Accept", "application/json");
-
-            InputStream errorStream = urlConnection.getErrorStream();
-
-            if (errorStream != null) {
-                Log.e(
-                    TAG,
-                    String.format(
-                        "The metadata update server returned a status of %s with the message %s",
-                        urlConnection.getResponseCode(),
-                        HttpRequestHandler.readStreamAsString(errorStream)
-                    )
-                );
-            } else {
-                JSObject json = new JSObject(
-                    HttpRequestHandler.readStreamAsString(urlConnection.getInputStream())
-                );
-
-                Log.i(TAG, json.toString());
-
-                updateFullResponse = json;
+            synchronized (this) {
                 albumTitle = json.getString("album_title");
                 artistName = json.getString("artist_name");
                 songTitle = json.getString("song_title");
                 artworkSource = json.getString("artwork_source");
-
-                return true;
             }
+
+            notifyUpdated(json);
         } catch (Exception ex) {
-            Log.e(TAG, "An error occurred trying to get updated metadata", ex);
-        } finally {
-            if (urlConnection != null) {
-                urlConnection.disconnect();
+            Log.e(TAG, "There was an error running the metadata update", ex);
+        }
+    }
+
+    /**
+     * Called by the {@link StreamMetadataListener} with the track info read from the stream.
+     * Fields the stream didn't include are `null` and keep their current value.
+     */
+    public void applyStreamUpdate(String albumTitle, String artistName, String songTitle) {
+        JSObject json;
+
+        synchronized (this) {
+            boolean changed =
+                (albumTitle != null && !albumTitle.equals(this.albumTitle)) ||
+                (artistName != null && !artistName.equals(this.artistName)) ||
+                (songTitle != null && !songTitle.equals(this.songTitle));
+
+            if (!changed) {
+                return;
             }
+
+            if (albumTitle != null) {
+                this.albumTitle = albumTitle;
+            }
+
+            if (artistName != null) {
+                this.artistName = artistName;
+            }
+
+            if (songTitle != null) {
+                this.songTitle = songTitle;
+            }
+
+            // Same shape as the `updateUrl` response
+            json = new JSObject()
+                .put("album_title", this.albumTitle)
+                .put("artist_name", this.artistName)
+                .put("song_title", this.songTitle)
+                .put("artwork_source", artworkSource);
+        }
+
+        try {
+            notifyUpdated(json);
+        } catch (Exception ex) {
+            Log.e(TAG, "There was an error running the stream metadata update", ex);
+        }
+    }
+
+    private void notifyUpdated(JSObject json) {
+        if (updateCallback != null) {
+            // Builds the metadata in the background, only the MediaController update
+            // is posted to the player's application thread
+            updateCallback.run();
         }
 
-        return false;
+        if (onMetadataUpdateCallbackId != null) {
+            PluginCall call = pluginOwner.getBridge().getSavedCall(onMetadataUpdateCallbackId);
+
+            if (call != null) {
+                call.resolve(json);
+            }
+        }
     }
 }
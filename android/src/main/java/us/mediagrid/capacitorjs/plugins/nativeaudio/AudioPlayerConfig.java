@@ -0,0 +1,112 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.content.Context;
+import com.getcapacitor.CapConfig;
+import com.getcapacitor.PluginConfig;
+
+/**
+ * Typed access to the `plugins.AudioPlayer` section of the Capacitor config.
+ *
+ * The plugin reads it through {@code getConfig()}, the service (which has no plugin instance)
+ * loads it from the app's bundled config.
+ */
+public class AudioPlayerConfig {
+
+    public static final String PLUGIN_ID = "AudioPlayer";
+
+    private final PluginConfig pluginConfig;
+
+    public AudioPlayerConfig(PluginConfig pluginConfig) {
+        this.pluginConfig = pluginConfig;
+    }
+
+    public static AudioPlayerConfig load(Context context) {
+        return new AudioPlayerConfig(
+            CapConfig.loadDefault(context).getPluginConfiguration(PLUGIN_ID)
+        );
+    }
+
+    public int getPlayerPoolMinSize() {
+        return Math.max(0, pluginConfig.getInt("playerPoolMinSize", 0));
+    }
+
+    public int getPlayerPoolMaxSize() {
+        return Math.max(getPlayerPoolMinSize(), pluginConfig.getInt("playerPoolMaxSize", 4));
+    }
+
+    public long getPlayerPoolIdleTimeoutMs() {
+        return Math.max(0, pluginConfig.getInt("playerPoolIdleTimeout", 30)) * 1000L;
+    }
+
+    public long getPreloadDurationMs() {
+        return Math.max(1, pluginConfig.getInt("preloadDuration", 5)) * 1000L;
+    }
+
+    public int getPreloadMaxSources() {
+        return Math.max(1, pluginConfig.getInt("preloadMaxSources", 5));
+    }
+
+    public int getPreloadMemoryBudgetBytes() {
+        return Math.max(1, pluginConfig.getInt("preloadMemoryBudget", 8)) * 1024 * 1024;
+    }
+
+    public boolean isMediaCacheEnabled() {
+        return pluginConfig.getBoolean("mediaCacheEnabled", false);
+    }
+
+    public long getMediaCacheMaxBytes() {
+        return Math.max(1, pluginConfig.getInt("mediaCacheMaxSize", 100)) * 1024L * 1024L;
+    }
+
+    public int getArtworkCacheMaxBytes() {
+        return Math.max(1, pluginConfig.getInt("artworkCacheSize", 4)) * 1024 * 1024;
+    }
+
+    public int getArtworkMaxDimension() {
+        return Math.max(64, pluginConfig.getInt("artworkMaxSize", 512));
+    }
+
+    public long getMetadataDebounceWindowMs() {
+        return Math.max(0, pluginConfig.getInt("metadataDebounceWindow", 250));
+    }
+
+    public long getMetadataUpdateMaxBackoffMs() {
+        return Math.max(1, pluginConfig.getInt("metadataUpdateMaxBackoff", 300)) * 1000L;
+    }
+
+    public double getMetadataUpdateJitterRatio() {
+        return Math.max(0, Math.min(100, pluginConfig.getInt("metadataUpdateJitter", 10))) / 100.0;
+    }
+
+    public int getMetadataPollerThreads() {
+        return Math.max(1, pluginConfig.getInt("metadataPollerThreads", 2));
+    }
+
+    public int getMetadataMaxStreams() {
+        return Math.max(0, pluginConfig.getInt("metadataMaxStreams", 4));
+    }
+
+    public int getSoundEffectMaxVoices() {
+        return Math.max(1, pluginConfig.getInt("soundEffectMaxVoices", 8));
+    }
+
+    public int getAssetCacheMaxBytes() {
+        return Math.max(0, pluginConfig.getInt("assetCacheSize", 8)) * 1024 * 1024;
+    }
+
+    public long getAssetCacheMaxFileBytes() {
+        return Math.max(0, pluginConfig.getInt("assetCacheMaxFileSize", 1024)) * 1024L;
+    }
+
+    public boolean isPrewarmOnLoad() {
+        return pluginConfig.getBoolean("prewarmOnLoad", false);
+    }
+
+    public int getPlaybackThreads() {
+        return Math.max(0, pluginConfig.getInt("playbackThreads", 0));
+    }
+
+    public boolean isAudioThreadEnabled() {
+        return pluginConfig.getBoolean("audioThread", false);
+    }
+}
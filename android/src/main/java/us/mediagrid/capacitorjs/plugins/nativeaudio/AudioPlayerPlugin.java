@@ -13,6 +13,7 @@ import androidx.media3.session.MediaController;
 import androidx.media3.session.SessionCommand;
 import androidx.media3.session.SessionResult;
 import androidx.media3.session.SessionToken;
+import com.getcapacitor.JSArray;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
@@ -21,19 +22,29 @@ import com.getcapacitor.annotation.CapacitorPlugin;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import java.util.HashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.json.JSONException;
 import us.mediagrid.capacitorjs.plugins.nativeaudio.exceptions.DestroyNotAllowedException;
+import us.mediagrid.capacitorjs.plugins.nativeaudio.exceptions.InvalidBatchException;
 
 @CapacitorPlugin(name = "AudioPlayer")
 public class AudioPlayerPlugin extends Plugin {
 
     private static final String TAG = "AudioPlayerPlugin";
-    public final ExecutorService executorService = Executors.newCachedThreadPool();
+    public final ThreadPoolExecutor executorService = createExecutorService();
 
     private ListenableFuture<MediaController> audioMediaControllerFuture;
     private MediaController audioMediaController;
 
+    private AudioPlayerConfig audioPlayerConfig;
+    private MetadataPoller metadataPoller;
+    private TimeUpdateTicker timeUpdateTicker;
+    private MetricsReporter metricsReporter;
+    private SoundEffectEngine soundEffectEngine;
     private AudioSources audioSources = new AudioSources();
     private HashMap<String, String> appOnStartCallbackIds = new HashMap<>();
     private HashMap<String, String> appOnStopCallbackIds = new HashMap<>();
@@ -44,7 +55,40 @@ public class AudioPlayerPlugin extends Plugin {
 
         super.load();
 
+        audioPlayerConfig = new AudioPlayerConfig(getConfig());
+        metadataPoller = new MetadataPoller(audioPlayerConfig);
+        timeUpdateTicker = new TimeUpdateTicker(this, () -> audioSources.withStatus("playing"));
+        metricsReporter = new MetricsReporter(this, audioSources::all);
+
         createNotificationChannel();
+
+        if (audioPlayerConfig.isPrewarmOnLoad()) {
+            prewarmOnLoad();
+        }
+    }
+
+    public AudioPlayerConfig getAudioPlayerConfig() {
+        return audioPlayerConfig;
+    }
+
+    public MetadataPoller getMetadataPoller() {
+        return metadataPoller;
+    }
+
+    public TimeUpdateTicker getTimeUpdateTicker() {
+        return timeUpdateTicker;
+    }
+
+    public synchronized SoundEffectEngine getSoundEffectEngine() {
+        if (soundEffectEngine == null) {
+            soundEffectEngine = new SoundEffectEngine(
+                getContext(),
+                audioPlayerConfig,
+                executorService
+            );
+        }
+
+        return soundEffectEngine;
     }
 
     @PluginMethod
@@ -78,8 +122,38 @@ public class AudioPlayerPlugin extends Plugin {
                 call.getBoolean("isBackgroundMusic", false),
                 call.getBoolean("loop", false)
             );
+            audioSource.useCache = call.getBoolean("cache");
+            audioSource.lowLatency = call.getBoolean("lowLatency", false);
+            audioSource.timeUpdateIntervalMs = Math.max(
+                0,
+                call.getInt("timeUpdateInterval", audioSource.timeUpdateIntervalMs)
+            );
+
+            Integer metadataUpdateBackgroundInterval = call.getInt(
+                "metadataUpdateBackgroundInterval"
+            );
+
+            if (metadataUpdateBackgroundInterval != null) {
+                audioSource.audioMetadata.backgroundUpdateInterval =
+                    metadataUpdateBackgroundInterval;
+            }
+
+            audioSource.audioMetadata.updateMode = MetadataFeed.Mode.fromString(
+                call.getString("metadataUpdateMode", "poll")
+            );
+            audioSource.audioMetadata.fromStream = call.getBoolean("metadataFromStream", false);
+
+            if (audioSource.lowLatency && audioSource.useForNotification) {
+                throw new RuntimeException(
+                    "A lowLatency audio source can't be used for the notification."
+                );
+            }
 
-            if (audioSources.count() == 0 && !audioSource.useForNotification) {
+            if (
+                !audioSources.hasNotification() &&
+                !audioSource.useForNotification &&
+                !audioSource.lowLatency
+            ) {
                 throw new RuntimeException(
                     "An audio source with useForNotification = true must exist first."
                 );
@@ -93,6 +167,13 @@ public class AudioPlayerPlugin extends Plugin {
 
             audioSources.add(audioSource);
 
+            // Sound effects don't go through the media session
+            if (audioSource.lowLatency) {
+                call.resolve();
+
+                return;
+            }
+
             initializeMediaController("create", call, () -> {
                 call.resolve();
             });
@@ -108,6 +189,31 @@ public class AudioPlayerPlugin extends Plugin {
                 return;
             }
 
+            AudioSource requestedSource = audioSources.get(audioId(call));
+
+            if (requestedSource.lowLatency) {
+                requestedSource.initializeSoundEffect(getSoundEffectEngine(), loaded -> {
+                    if (!loaded) {
+                        call.reject("There was an issue initializing the audio player [6].");
+
+                        return;
+                    }
+
+                    call.resolve();
+
+                    if (requestedSource.onReadyCallbackId != null) {
+                        PluginCall readyCall = getBridge()
+                            .getSavedCall(requestedSource.onReadyCallbackId);
+
+                        if (readyCall != null) {
+                            readyCall.resolve();
+                        }
+                    }
+                });
+
+                return;
+            }
+
             postToLooper("initialize", call, () -> {
                 AudioSource audioSource = audioSources.get(audioId(call));
 
@@ -223,94 +329,235 @@ public class AudioPlayerPlugin extends Plugin {
             }
 
             AudioSource audioSource = audioSources.get(audioId(call));
+            requirePlayer(audioSource, "changeAudioSource");
 
-            postToLooper("changeAudioSource", call, () -> {
-                audioSource.changeAudioSource(call.getString("source"));
+            String source = call.getString("source");
 
-                call.resolve();
-            });
+            if (!call.getBoolean("seamless", false)) {
+                postToLooper(audioSource, "changeAudioSource", call, () -> {
+                    audioSource.changeAudioSource(source);
+
+                    call.resolve();
+                });
+
+                return;
+            }
+
+            long crossfadeMs = Math.max(0, call.getInt("crossfadeDuration", 0));
+            long timeoutMs = Math.max(0, call.getInt("seamlessTimeout", 10000));
+
+            postToLooper(audioSource, "changeAudioSource", call, () ->
+                audioSource.changeAudioSource(source, crossfadeMs, timeoutMs, call::resolve)
+            );
         } catch (Exception ex) {
             call.reject("There was an issue changing the audio source.", ex);
         }
     }
 
     @PluginMethod
-    public void changeMetadata(PluginCall call) {
+    public void setQueue(PluginCall call) {
         try {
-            if (!audioSourceExists("changeMetadata", call)) {
+            if (!audioSourceExists("setQueue", call)) {
                 return;
             }
 
             AudioSource audioSource = audioSources.get(audioId(call));
+            requirePlayer(audioSource, "setQueue");
 
-            postToLooper("changeMetadata", call, () -> {
-                audioSource.changeMetadata(
-                    new AudioMetadata(
-                        call.getString("albumTitle"),
-                        call.getString("artistName"),
-                        call.getString("friendlyTitle"),
-                        call.getString("artworkSource"),
-                        null,
-                        null
-                    )
+            List<QueueItem> items = QueueItem.parse(call.getArray("items", new JSArray()));
+            int startIndex = call.getInt("startIndex", 0);
+
+            if (items.isEmpty()) {
+                throw new IllegalArgumentException("A queue needs at least one item.");
+            }
+
+            if (startIndex < 0 || startIndex >= items.size()) {
+                throw new IllegalArgumentException(
+                    String.format("The start index %d is out of bounds.", startIndex)
                 );
+            }
+
+            postToLooper(audioSource, "setQueue", call, () -> {
+                requireQueueable(audioSource);
+                audioSource.setQueue(items, startIndex);
 
                 call.resolve();
             });
         } catch (Exception ex) {
-            call.reject("There was an issue changing the metadata.", ex);
+            call.reject("There was an issue setting the queue.", ex);
         }
     }
 
     @PluginMethod
-    public void updateMetadata(PluginCall call) {
+    public void enqueue(PluginCall call) {
         try {
-            if (!audioSourceExists("updateMetadata", call)) {
+            if (!audioSourceExists("enqueue", call)) {
                 return;
             }
 
             AudioSource audioSource = audioSources.get(audioId(call));
+            List<QueueItem> items = QueueItem.parse(call.getArray("items", new JSArray()));
 
-            postToLooper("updateMetadata", call, () -> {
-                audioSource.audioMetadata.updateMetadataByUrl(null);
+            postToLooper(audioSource, "enqueue", call, () -> {
+                requireQueueable(audioSource);
+                audioSource.enqueue(items);
 
                 call.resolve();
             });
         } catch (Exception ex) {
-            call.reject("There was an issue updating the metadata.", ex);
+            call.reject("There was an issue adding to the queue.", ex);
         }
     }
 
     @PluginMethod
-    public void getDuration(PluginCall call) {
+    public void skipNext(PluginCall call) {
         try {
-            if (!audioSourceExists("getDuration", call)) {
+            if (!audioSourceExists("skipNext", call)) {
                 return;
             }
 
-            postToLooper("getDuration", call, () -> {
+            AudioSource audioSource = audioSources.get(audioId(call));
+
+            postToLooper(audioSource, "skipNext", call, () -> {
+                requireQueueable(audioSource);
+
+                boolean skipped = audioSource.skipNext();
+
                 call.resolve(
-                    new JSObject().put("duration", audioSources.get(audioId(call)).getDuration())
+                    new JSObject()
+                        .put("skipped", skipped)
+                        .put("index", audioSource.getQueueIndex())
+                        .put("size", audioSource.getQueueSize())
                 );
             });
         } catch (Exception ex) {
-            call.reject("There was an issue getting the duration for the audio source.", ex);
+            call.reject("There was an issue skipping to the next item.", ex);
         }
     }
 
     @PluginMethod
-    public void getCurrentTime(PluginCall call) {
+    public void skipPrevious(PluginCall call) {
         try {
-            if (!audioSourceExists("getCurrentTime", call)) {
+            if (!audioSourceExists("skipPrevious", call)) {
                 return;
             }
 
-            postToLooper("getCurrentTime", call, () -> {
+            AudioSource audioSource = audioSources.get(audioId(call));
+
+            postToLooper(audioSource, "skipPrevious", call, () -> {
+                requireQueueable(audioSource);
+
+                boolean skipped = audioSource.skipPrevious();
+
                 call.resolve(
                     new JSObject()
-                        .put("currentTime", audioSources.get(audioId(call)).getCurrentTime())
+                        .put("skipped", skipped)
+                        .put("index", audioSource.getQueueIndex())
+                        .put("size", audioSource.getQueueSize())
                 );
             });
+        } catch (Exception ex) {
+            call.reject("There was an issue skipping to the previous item.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void changeMetadata(PluginCall call) {
+        try {
+            if (!audioSourceExists("changeMetadata", call)) {
+                return;
+            }
+
+            AudioSource audioSource = audioSources.get(audioId(call));
+            requirePlayer(audioSource, "changeMetadata");
+
+            audioSource.changeMetadata(
+                new AudioMetadata(
+                    call.getString("albumTitle"),
+                    call.getString("artistName"),
+                    call.getString("friendlyTitle"),
+                    call.getString("artworkSource"),
+                    null,
+                    null
+                )
+            );
+
+            call.resolve();
+        } catch (Exception ex) {
+            call.reject("There was an issue changing the metadata.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void updateMetadata(PluginCall call) {
+        try {
+            if (!audioSourceExists("updateMetadata", call)) {
+                return;
+            }
+
+            AudioSource audioSource = audioSources.get(audioId(call));
+
+            audioSource.audioMetadata.updateMetadataByUrl();
+
+            call.resolve();
+        } catch (Exception ex) {
+            call.reject("There was an issue updating the metadata.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void getMetadataStats(PluginCall call) {
+        try {
+            if (!audioSourceExists("getMetadataStats", call)) {
+                return;
+            }
+
+            call.resolve(audioSources.get(audioId(call)).getMetadataPublisher().getStats());
+        } catch (Exception ex) {
+            call.reject("There was an issue getting the metadata stats.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void getMetadataPollerStats(PluginCall call) {
+        try {
+            call.resolve(
+                metadataPoller
+                    .getStats()
+                    .put("executorActiveThreads", executorService.getActiveCount())
+                    .put("executorQueued", executorService.getQueue().size())
+            );
+        } catch (Exception ex) {
+            call.reject("There was an issue getting the metadata poller stats.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void getDuration(PluginCall call) {
+        try {
+            if (!audioSourceExists("getDuration", call)) {
+                return;
+            }
+
+            // Answered from the snapshot, no need to wait for the player's thread
+            call.resolve(
+                new JSObject().put("duration", audioSources.get(audioId(call)).getDuration())
+            );
+        } catch (Exception ex) {
+            call.reject("There was an issue getting the duration for the audio source.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void getCurrentTime(PluginCall call) {
+        try {
+            if (!audioSourceExists("getCurrentTime", call)) {
+                return;
+            }
+
+            call.resolve(
+                new JSObject().put("currentTime", audioSources.get(audioId(call)).getCurrentTime())
+            );
         } catch (Exception ex) {
             call.reject("There was an issue getting the current time for the audio source.", ex);
         }
@@ -323,7 +570,7 @@ public class AudioPlayerPlugin extends Plugin {
                 return;
             }
 
-            postToLooper("play", call, () -> {
+            postToLooper(audioSources.get(audioId(call)), "play", call, () -> {
                 audioSources.get(audioId(call)).play();
 
                 call.resolve();
@@ -340,7 +587,7 @@ public class AudioPlayerPlugin extends Plugin {
                 return;
             }
 
-            postToLooper("pause", call, () -> {
+            postToLooper(audioSources.get(audioId(call)), "pause", call, () -> {
                 audioSources.get(audioId(call)).pause();
 
                 call.resolve();
@@ -357,7 +604,7 @@ public class AudioPlayerPlugin extends Plugin {
                 return;
             }
 
-            postToLooper("seek", call, () -> {
+            postToLooper(audioSources.get(audioId(call)), "seek", call, () -> {
                 audioSources.get(audioId(call)).seek(call.getInt("timeInSeconds"));
 
                 call.resolve();
@@ -374,7 +621,7 @@ public class AudioPlayerPlugin extends Plugin {
                 return;
             }
 
-            postToLooper("stop", call, () -> {
+            postToLooper(audioSources.get(audioId(call)), "stop", call, () -> {
                 audioSources.get(audioId(call)).stop();
 
                 call.resolve();
@@ -391,7 +638,7 @@ public class AudioPlayerPlugin extends Plugin {
                 return;
             }
 
-            postToLooper("setVolume", call, () -> {
+            postToLooper(audioSources.get(audioId(call)), "setVolume", call, () -> {
                 audioSources.get(audioId(call)).setVolume(call.getFloat("volume"));
 
                 call.resolve();
@@ -408,7 +655,7 @@ public class AudioPlayerPlugin extends Plugin {
                 return;
             }
 
-            postToLooper("setRate", call, () -> {
+            postToLooper(audioSources.get(audioId(call)), "setRate", call, () -> {
                 audioSources.get(audioId(call)).setRate(call.getFloat("rate"));
 
                 call.resolve();
@@ -425,16 +672,63 @@ public class AudioPlayerPlugin extends Plugin {
                 return;
             }
 
-            postToLooper("isPlaying", call, () -> {
-                call.resolve(
-                    new JSObject().put("isPlaying", audioSources.get(audioId(call)).isPlaying())
-                );
-            });
+            PlaybackSnapshot snapshot = audioSources.get(audioId(call)).getSnapshot();
+
+            call.resolve(new JSObject().put("isPlaying", snapshot.status.equals("playing")));
         } catch (Exception ex) {
             call.reject("There was an issue getting the playing status of the audio.", ex);
         }
     }
 
+    @PluginMethod
+    public void getState(PluginCall call) {
+        try {
+            if (!audioSourceExists("getState", call)) {
+                return;
+            }
+
+            call.resolve(audioSources.get(audioId(call)).getSnapshot().toJSObject());
+        } catch (Exception ex) {
+            call.reject("There was an issue getting the state of the audio.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void getMetrics(PluginCall call) {
+        try {
+            if (!audioSourceExists("getMetrics", call)) {
+                return;
+            }
+
+            AudioSource audioSource = audioSources.get(audioId(call));
+
+            call.resolve(
+                audioSource.getPlaybackMetrics().toJSObject().put("audioId", audioSource.id)
+            );
+        } catch (Exception ex) {
+            call.reject("There was an issue getting the playback metrics.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void batch(PluginCall call) {
+        List<BatchOperation> operations;
+
+        try {
+            operations = BatchOperation.parse(call.getArray("ops", new JSArray()), audioSources);
+        } catch (InvalidBatchException ex) {
+            call.reject(ex.getMessage(), ex);
+
+            return;
+        } catch (Exception ex) {
+            call.reject("There was an issue reading the batch operations.", ex);
+
+            return;
+        }
+
+        runBatch(call, operations, 0, new JSArray());
+    }
+
     @PluginMethod
     public void destroy(PluginCall call) {
         try {
@@ -457,13 +751,14 @@ public class AudioPlayerPlugin extends Plugin {
             appOnStartCallbackIds.remove(audioId);
             appOnStopCallbackIds.remove(audioId);
 
-            postToLooper("destroy", call, () -> {
+            postToLooper(audioSource, "destroy", call, () -> {
                 if (audioSource.useForNotification) {
                     releaseMediaController();
                 }
 
                 audioSource.destroy();
                 audioSources.remove(audioId);
+                timeUpdateTicker.refresh();
 
                 call.resolve();
             });
@@ -472,6 +767,134 @@ public class AudioPlayerPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void getSoundEffectStats(PluginCall call) {
+        try {
+            call.resolve(getSoundEffectEngine().getStats());
+        } catch (Exception ex) {
+            call.reject("There was an issue getting the sound effect stats.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void getPlayerPoolStats(PluginCall call) {
+        try {
+            sendSessionCommand(
+                "getPlayerPoolStats",
+                call,
+                MediaSessionCallback.GET_PLAYER_POOL_STATS,
+                new Bundle(),
+                stats -> call.resolve(toJSObject(stats))
+            );
+        } catch (Exception ex) {
+            call.reject("There was an issue getting the player pool stats.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void preload(PluginCall call) {
+        try {
+            String[] audioIds = audioIds(call);
+
+            for (String audioId : audioIds) {
+                AudioSource audioSource = audioSources.get(audioId);
+
+                if (audioSource == null || audioSource.useForNotification) {
+                    call.reject(
+                        String.format(
+                            "Audio source with ID %s was not found or is used for the notification.",
+                            audioId
+                        )
+                    );
+
+                    return;
+                }
+
+                requirePlayer(audioSource, "preload");
+            }
+
+            Bundle preloadBundle = new Bundle();
+            preloadBundle.putBinder("audioSources", audioSources);
+            preloadBundle.putStringArray("audioIds", audioIds);
+            preloadBundle.putInt("priority", call.getInt("priority", 0));
+
+            sendSessionCommand(
+                "preload",
+                call,
+                MediaSessionCallback.PRELOAD,
+                preloadBundle,
+                result -> call.resolve()
+            );
+        } catch (Exception ex) {
+            call.reject("There was an issue preloading the audio.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void getPreloadState(PluginCall call) {
+        try {
+            Bundle stateBundle = new Bundle();
+            stateBundle.putStringArray("audioIds", audioIds(call));
+
+            sendSessionCommand(
+                "getPreloadState",
+                call,
+                MediaSessionCallback.GET_PRELOAD_STATE,
+                stateBundle,
+                states -> call.resolve(new JSObject().put("states", toJSObject(states)))
+            );
+        } catch (Exception ex) {
+            call.reject("There was an issue getting the preload state.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void prewarm(PluginCall call) {
+        try {
+            initializeMediaController("prewarm", call, () ->
+                sendSessionCommand(
+                    "prewarm",
+                    call,
+                    MediaSessionCallback.PREWARM,
+                    new Bundle(),
+                    result -> call.resolve(toJSObject(result))
+                )
+            );
+        } catch (Exception ex) {
+            call.reject("There was an issue pre-warming the audio player.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void getCacheStats(PluginCall call) {
+        try {
+            sendSessionCommand(
+                "getCacheStats",
+                call,
+                MediaSessionCallback.GET_CACHE_STATS,
+                new Bundle(),
+                stats -> call.resolve(toJSObject(stats))
+            );
+        } catch (Exception ex) {
+            call.reject("There was an issue getting the cache stats.", ex);
+        }
+    }
+
+    @PluginMethod
+    public void clearCache(PluginCall call) {
+        try {
+            sendSessionCommand(
+                "clearCache",
+                call,
+                MediaSessionCallback.CLEAR_CACHE,
+                new Bundle(),
+                result -> call.resolve()
+            );
+        } catch (Exception ex) {
+            call.reject("There was an issue clearing the cache.", ex);
+        }
+    }
+
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void onAppGainsFocus(PluginCall call) {
         call.setKeepAlive(true);
@@ -512,6 +935,18 @@ public class AudioPlayerPlugin extends Plugin {
         audioSources.get(audioId(call)).setOnEnd(call.getCallbackId());
     }
 
+    @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
+    public void onQueueItemChange(PluginCall call) {
+        if (!audioSourceExists("onQueueItemChange", call)) {
+            return;
+        }
+
+        call.setKeepAlive(true);
+        getBridge().saveCall(call);
+
+        audioSources.get(audioId(call)).setOnQueueItemChange(call.getCallbackId());
+    }
+
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void onPlaybackStatusChange(PluginCall call) {
         if (!audioSourceExists("onPlaybackStatusChange", call)) {
@@ -536,12 +971,35 @@ public class AudioPlayerPlugin extends Plugin {
         audioSources.get(audioId(call)).audioMetadata.setOnMetadataUpdate(call.getCallbackId());
     }
 
+    @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
+    public void onTimeUpdate(PluginCall call) {
+        call.setKeepAlive(true);
+        getBridge().saveCall(call);
+
+        new Handler(Looper.getMainLooper()).post(() ->
+            timeUpdateTicker.setCallbackId(call.getCallbackId())
+        );
+    }
+
+    @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
+    public void onMetrics(PluginCall call) {
+        call.setKeepAlive(true);
+        getBridge().saveCall(call);
+
+        long intervalMs = Math.max(1000, call.getInt("interval", 10000));
+
+        new Handler(Looper.getMainLooper()).post(() ->
+            metricsReporter.start(call.getCallbackId(), intervalMs)
+        );
+    }
+
     @Override
     protected void handleOnStart() {
         Log.i(TAG, "Handling onStart");
 
         super.handleOnStart();
 
+        metadataPoller.setInBackground(false);
         makeAppStatusChangeCallbacks(appOnStartCallbackIds);
     }
 
@@ -550,6 +1008,7 @@ public class AudioPlayerPlugin extends Plugin {
         Log.i(TAG, "Handling onStop");
 
         makeAppStatusChangeCallbacks(appOnStopCallbackIds);
+        metadataPoller.setInBackground(true);
 
         super.handleOnStop();
     }
@@ -559,6 +1018,16 @@ public class AudioPlayerPlugin extends Plugin {
         Log.i(TAG, "Handling onDestroy");
 
         releaseMediaController();
+        metadataPoller.shutdown();
+        timeUpdateTicker.stop();
+        metricsReporter.stop();
+
+        synchronized (this) {
+            if (soundEffectEngine != null) {
+                soundEffectEngine.release();
+                soundEffectEngine = null;
+            }
+        }
         executorService.shutdownNow();
 
         super.handleOnDestroy();
@@ -574,7 +1043,31 @@ public class AudioPlayerPlugin extends Plugin {
             return;
         }
 
-        postToLooper("initializeMediaController", call, () -> {
+        postToLooper("initializeMediaController", call, () ->
+            connectMediaController(callback, ex ->
+                call.reject(
+                    String.format(
+                        "There was an issue initializing the MediaController in method %s",
+                        methodName
+                    ),
+                    ex
+                )
+            )
+        );
+    }
+
+    /**
+     * Builds the MediaController, or if one is already being built (e.g. by a pre-warm),
+     * waits for that one. Main thread only.
+     */
+    private void connectMediaController(Runnable callback, Consumer<Exception> onError) {
+        if (audioMediaController != null) {
+            callback.run();
+
+            return;
+        }
+
+        if (audioMediaControllerFuture == null) {
             SessionToken sessionToken = new SessionToken(
                 getContextForAudioService(),
                 new ComponentName(getContextForAudioService(), AudioPlayerService.class)
@@ -584,26 +1077,43 @@ public class AudioPlayerPlugin extends Plugin {
                 getContextForAudioService(),
                 sessionToken
             ).buildAsync();
+        }
 
-            audioMediaControllerFuture.addListener(
-                () -> {
-                    try {
-                        audioMediaController = audioMediaControllerFuture.get();
-                        callback.run();
-                    } catch (Exception ex) {
-                        Log.e(TAG, "Couldn't get MediaController", ex);
-                        call.reject(
-                            String.format(
-                                "There was an issue initializing the MediaController in method %s",
-                                methodName
-                            ),
-                            ex
-                        );
+        ListenableFuture<MediaController> future = audioMediaControllerFuture;
+
+        future.addListener(
+            () -> {
+                try {
+                    audioMediaController = future.get();
+                    callback.run();
+                } catch (Exception ex) {
+                    Log.e(TAG, "Couldn't get MediaController", ex);
+
+                    // Let the next call build a new one
+                    if (audioMediaController == null && audioMediaControllerFuture == future) {
+                        audioMediaControllerFuture = null;
                     }
-                },
-                MoreExecutors.directExecutor()
-            );
-        });
+
+                    onError.accept(ex);
+                }
+            },
+            MoreExecutors.directExecutor()
+        );
+    }
+
+    private void prewarmOnLoad() {
+        Log.i(TAG, "Pre-warming on load");
+
+        new Handler(Looper.getMainLooper()).post(() ->
+            connectMediaController(
+                () ->
+                    audioMediaController.sendCustomCommand(
+                        new SessionCommand(MediaSessionCallback.PREWARM, new Bundle()),
+                        new Bundle()
+                    ),
+                ex -> Log.w(TAG, "Couldn't pre-warm on load", ex)
+            )
+        );
     }
 
     private void releaseMediaController() {
@@ -626,12 +1136,19 @@ public class AudioPlayerPlugin extends Plugin {
         audioMediaController.release();
         MediaController.releaseFuture(audioMediaControllerFuture);
         audioMediaController = null;
+        audioMediaControllerFuture = null;
     }
 
     private String audioId(PluginCall call) {
         return call.getString("audioId");
     }
 
+    private String[] audioIds(PluginCall call) throws JSONException {
+        JSArray audioIds = call.getArray("audioIds", new JSArray());
+
+        return audioIds.<String>toList().toArray(new String[0]);
+    }
+
     private boolean audioSourceExists(String methodName, PluginCall call) {
         return audioSourceExists(methodName, call, true);
     }
@@ -649,6 +1166,28 @@ public class AudioPlayerPlugin extends Plugin {
         return audioSourceExists;
     }
 
+    /**
+     * Sound effects play through the engine, they have no player, media item or metadata.
+     */
+    private static void requirePlayer(AudioSource audioSource, String methodName) {
+        if (audioSource.lowLatency) {
+            throw new RuntimeException(
+                String.format("%s isn't available for a lowLatency audio source.", methodName)
+            );
+        }
+    }
+
+    // Only on the source's application looper, which is where its player is set
+    private static void requireQueueable(AudioSource audioSource) {
+        if (audioSource.lowLatency) {
+            throw new RuntimeException("A lowLatency audio source can't have a queue.");
+        }
+
+        if (!audioSource.isInitialized()) {
+            throw new RuntimeException("The audio source must be initialized first.");
+        }
+    }
+
     private Context getContextForAudioService() {
         return this.getActivity();
     }
@@ -687,8 +1226,185 @@ public class AudioPlayerPlugin extends Plugin {
         }
     }
 
+    private void sendSessionCommand(
+        String methodName,
+        PluginCall call,
+        String customAction,
+        Bundle args,
+        Consumer<Bundle> onSuccess
+    ) {
+        if (audioMediaController == null) {
+            call.reject(
+                String.format(
+                    "The MediaController is not initialized yet, create an audio source first (%s)",
+                    methodName
+                )
+            );
+
+            return;
+        }
+
+        postToLooper(methodName, call, () -> {
+            ListenableFuture<SessionResult> commandResult =
+                audioMediaController.sendCustomCommand(
+                    new SessionCommand(customAction, args),
+                    new Bundle()
+                );
+
+            commandResult.addListener(
+                () -> {
+                    try {
+                        SessionResult result = commandResult.get();
+
+                        if (result.resultCode == SessionResult.RESULT_SUCCESS) {
+                            onSuccess.accept(result.extras);
+                        } else {
+                            Log.e(
+                                TAG,
+                                String.format(
+                                    "Custom command %s failed. Result code was %s.",
+                                    customAction,
+                                    result.resultCode
+                                )
+                            );
+                            call.reject(
+                                String.format(
+                                    "There was an issue running the command for method %s",
+                                    methodName
+                                )
+                            );
+                        }
+                    } catch (Exception ex) {
+                        Log.e(TAG, String.format("Custom command %s failed.", customAction), ex);
+                        call.reject(
+                            String.format(
+                                "There was an issue running the command for method %s",
+                                methodName
+                            ),
+                            ex
+                        );
+                    }
+                },
+                MoreExecutors.directExecutor()
+            );
+        });
+    }
+
+    /**
+     * Runs the operations from the given index on. Consecutive operations whose players share
+     * a thread run as one task, so nothing else runs between them. Only a batch mixing the
+     * notification with other audio sources while `audioThread` is enabled takes more than one.
+     */
+    private void runBatch(
+        PluginCall call,
+        List<BatchOperation> operations,
+        int from,
+        JSArray results
+    ) {
+        if (from == operations.size()) {
+            call.resolve(new JSObject().put("results", results));
+
+            return;
+        }
+
+        Looper looper = getBatchLooper(operations.get(from));
+        int to = from + 1;
+
+        while (to < operations.size() && getBatchLooper(operations.get(to)) == looper) {
+            to++;
+        }
+
+        int end = to;
+
+        postToLooper(looper, "batch", call, () -> {
+            for (BatchOperation operation : operations.subList(from, end)) {
+                AudioSource audioSource = audioSources.get(operation.audioId);
+
+                try {
+                    if (audioSource == null) {
+                        throw new IllegalStateException("The audio source was destroyed.");
+                    }
+
+                    results.put(operation.run(audioSource));
+                } catch (Exception ex) {
+                    Log.e(TAG, String.format("Batch operation %s failed", operation.method), ex);
+
+                    results.put(
+                        new JSObject()
+                            .put("audioId", operation.audioId)
+                            .put("method", operation.method)
+                            .put("success", false)
+                            .put("error", ex.getMessage())
+                    );
+                }
+            }
+
+            runBatch(call, operations, end, results);
+        });
+    }
+
+    private Looper getBatchLooper(BatchOperation operation) {
+        AudioSource audioSource = audioSources.get(operation.audioId);
+
+        // A destroyed source fails its operation wherever it runs
+        return audioSource != null ? audioSource.getApplicationLooper() : Looper.getMainLooper();
+    }
+
+    private static JSObject toJSObject(Bundle bundle) {
+        JSObject json = new JSObject();
+
+        for (String key : bundle.keySet()) {
+            Object value = bundle.get(key);
+
+            if (value instanceof Bundle) {
+                json.put(key, toJSObject((Bundle) value));
+            } else {
+                json.put(key, value);
+            }
+        }
+
+        return json;
+    }
+
+    private static ThreadPoolExecutor createExecutorService() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            4,
+            4,
+            30,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>()
+        );
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * Posts to the main thread, for the MediaController.
+     */
     private void postToLooper(String methodName, PluginCall call, Runnable callback) {
-        new Handler(Looper.getMainLooper()).post(() -> {
+        postToLooper(Looper.getMainLooper(), methodName, call, callback);
+    }
+
+    /**
+     * Posts to the audio source's application thread, for its player.
+     */
+    private void postToLooper(
+        AudioSource audioSource,
+        String methodName,
+        PluginCall call,
+        Runnable callback
+    ) {
+        postToLooper(audioSource.getApplicationLooper(), methodName, call, callback);
+    }
+
+    private void postToLooper(
+        Looper looper,
+        String methodName,
+        PluginCall call,
+        Runnable callback
+    ) {
+        new Handler(looper).post(() -> {
             try {
                 callback.run();
             } catch (Exception ex) {
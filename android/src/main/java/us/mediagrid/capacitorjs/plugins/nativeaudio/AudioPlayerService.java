@@ -1,6 +1,7 @@
 package us.mediagrid.capacitorjs.plugins.nativeaudio;
 
 import android.content.Intent;
+import android.os.Handler;
 import android.os.IBinder;
 import android.util.Log;
 import androidx.annotation.Nullable;
@@ -10,6 +11,7 @@ import androidx.media3.common.C;
 import androidx.media3.common.Player;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.source.MediaSource;
 import androidx.media3.session.MediaSession;
 import androidx.media3.session.MediaSessionService;
 
@@ -18,12 +20,25 @@ public class AudioPlayerService extends MediaSessionService {
     private static final String TAG = "AudioPlayerService";
     public static final String PLAYBACK_CHANNEL_ID = "playback_channel";
     private MediaSession mediaSession = null;
+    private MediaCache mediaCache = null;
+    private PlaybackMetrics notificationMetrics = null;
+    private Handler audioHandler = null;
+    // Only used on the audio thread, see AudioThread
+    private PlayerPool playerPool = null;
+    private AudioPreloader audioPreloader = null;
+    private AudioPrewarmer audioPrewarmer = null;
+    private PlaybackThreads playbackThreads = null;
 
     @Override
     public void onCreate() {
         Log.i(TAG, "Service being created");
         super.onCreate();
 
+        AudioPlayerConfig config = AudioPlayerConfig.load(this);
+
+        mediaCache = MediaCache.getInstance(this);
+        MediaSource.Factory mediaSourceFactory = mediaCache.createMediaSourceFactory();
+
         ExoPlayer player = new ExoPlayer.Builder(this)
             .setAudioAttributes(
                 new AudioAttributes.Builder()
@@ -33,11 +48,27 @@ public class AudioPlayerService extends MediaSessionService {
                 true
             )
             .setWakeMode(C.WAKE_MODE_NETWORK)
+            .setMediaSourceFactory(mediaSourceFactory)
             .build();
         player.setPlayWhenReady(false);
+        player.addListener(new StreamMetadataListener(this::getNotificationAudioSource));
         mediaSession = new MediaSession.Builder(this, player)
             .setCallback(new MediaSessionCallback(this))
             .build();
+
+        audioHandler = new Handler(AudioThread.getLooper(this));
+        runOnAudioThread(() -> {
+            playbackThreads = new PlaybackThreads(config);
+            audioPreloader = new AudioPreloader(
+                this,
+                config,
+                mediaSourceFactory,
+                playbackThreads
+            );
+            playerPool = new PlayerPool(audioPreloader::buildPlayer, config);
+            playerPool.prewarm();
+            audioPrewarmer = new AudioPrewarmer(playerPool);
+        });
     }
 
     @Override
@@ -60,7 +91,7 @@ public class AudioPlayerService extends MediaSessionService {
 
         if (audioSources != null) {
             Log.i(TAG, "Destroying all non-notification audio sources");
-            audioSources.destroyAllNonNotificationSources();
+            runOnAudioThread(audioSources::destroyAllNonNotificationSources);
         }
 
         Player player = mediaSession.getPlayer();
@@ -79,18 +110,85 @@ public class AudioPlayerService extends MediaSessionService {
 
         AudioSources audioSources = getAudioSourcesFromMediaSession();
 
-        if (audioSources != null) {
-            Log.i(TAG, "Destroying all non-notification audio sources");
-            audioSources.destroyAllNonNotificationSources();
-        }
-
         mediaSession.getPlayer().release();
         mediaSession.release();
         mediaSession = null;
 
+        runOnAudioThread(() -> {
+            if (audioSources != null) {
+                Log.i(TAG, "Destroying all non-notification audio sources");
+                audioSources.destroyAllNonNotificationSources();
+            }
+
+            audioPrewarmer.release();
+            audioPrewarmer = null;
+            playerPool.releaseAll();
+            playerPool = null;
+            audioPreloader.release();
+            audioPreloader = null;
+            playbackThreads.release();
+            playbackThreads = null;
+        });
+
         super.onDestroy();
     }
 
+    /**
+     * Runs the task on the thread of the non-notification players, right away if already on it.
+     */
+    public void runOnAudioThread(Runnable task) {
+        if (audioHandler.getLooper().isCurrentThread()) {
+            task.run();
+        } else {
+            audioHandler.post(task);
+        }
+    }
+
+    public PlayerPool getPlayerPool() {
+        return playerPool;
+    }
+
+    public AudioPreloader getAudioPreloader() {
+        return audioPreloader;
+    }
+
+    public MediaCache getMediaCache() {
+        return mediaCache;
+    }
+
+    public AudioPrewarmer getAudioPrewarmer() {
+        return audioPrewarmer;
+    }
+
+    public PlaybackThreads getPlaybackThreads() {
+        return playbackThreads;
+    }
+
+    /**
+     * Feeds the session player's analytics to the notification source's metrics. The plugin
+     * only has a MediaController for it, which has no analytics.
+     */
+    @OptIn(markerClass = UnstableApi.class)
+    public void setNotificationMetrics(@Nullable PlaybackMetrics metrics) {
+        ExoPlayer player = (ExoPlayer) mediaSession.getPlayer();
+
+        if (notificationMetrics != null) {
+            player.removeAnalyticsListener(notificationMetrics);
+        }
+
+        notificationMetrics = metrics;
+
+        if (metrics != null) {
+            player.addAnalyticsListener(metrics);
+        }
+    }
+
+    private AudioSource getNotificationAudioSource() {
+        AudioSources audioSources = getAudioSourcesFromMediaSession();
+
+        return audioSources != null ? audioSources.forNotification() : null;
+    }
+
     @OptIn(markerClass = UnstableApi.class)
     private AudioSources getAudioSourcesFromMediaSession() {
         IBinder sourcesBinder = mediaSession.getSessionExtras().getBinder("audioSources");
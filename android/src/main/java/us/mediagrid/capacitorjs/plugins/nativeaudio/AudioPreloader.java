@@ -0,0 +1,249 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.OptIn;
+import androidx.media3.common.C;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.DefaultLoadControl;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.source.MediaSource;
+import androidx.media3.exoplayer.source.preload.DefaultPreloadManager;
+import androidx.media3.exoplayer.source.preload.PreloadException;
+import androidx.media3.exoplayer.source.preload.PreloadManagerListener;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Buffers the start of non-notification audio sources ahead of time with media3's
+ * {@link DefaultPreloadManager}, so a later `play()` doesn't have to wait on the network.
+ *
+ * Ordinary players come from {@link #buildPlayer()}, with the default load control, on
+ * their own or shared {@link PlaybackThreads}. Only a source that was preloaded gets a player from
+ * {@link #buildTakeOverPlayer}, which shares the preload manager's load control, bandwidth
+ * meter and thread, as taking over a preloaded source requires. Those aren't pooled, so the
+ * preload memory budget only ever applies to preloading and the players that took over.
+ *
+ * Must only be used from the players' application thread, see {@link AudioThread}. The
+ * preload manager takes the thread it is built on as its application thread.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class AudioPreloader {
+
+    private static final String TAG = "AudioPreloader";
+
+    public static final String STATE_PRELOADING = "preloading";
+    public static final String STATE_PRELOADED = "preloaded";
+    public static final String STATE_ERROR = "error";
+    public static final String STATE_NONE = "none";
+
+    private final Context context;
+    private final int maxSources;
+    private final DefaultPreloadManager.Builder preloadManagerBuilder;
+    private final DefaultPreloadManager preloadManager;
+
+    private final HashMap<String, PreloadEntry> entries = new HashMap<>();
+    // Released players drop out on their own
+    private final Set<ExoPlayer> takeOverPlayers = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final MediaSource.Factory mediaSourceFactory;
+    private final PlaybackThreads playbackThreads;
+
+    public AudioPreloader(
+        Context context,
+        AudioPlayerConfig config,
+        MediaSource.Factory mediaSourceFactory,
+        PlaybackThreads playbackThreads
+    ) {
+        this.context = context;
+        this.maxSources = config.getPreloadMaxSources();
+        this.mediaSourceFactory = mediaSourceFactory;
+        this.playbackThreads = playbackThreads;
+
+        long preloadDurationMs = config.getPreloadDurationMs();
+
+        preloadManagerBuilder = new DefaultPreloadManager.Builder(context, rankingData ->
+            DefaultPreloadManager.PreloadStatus.specifiedRangeLoaded(preloadDurationMs)
+        )
+            .setMediaSourceFactory(mediaSourceFactory)
+            .setPreloadLooper(playbackThreads.getPreloadLooper())
+            .setLoadControl(
+                new DefaultLoadControl.Builder()
+                    .setTargetBufferBytes(config.getPreloadMemoryBudgetBytes())
+                    .setPrioritizeTimeOverSizeThresholds(false)
+                    .build()
+            );
+
+        preloadManager = preloadManagerBuilder.build();
+
+        // Ranking data is the priority, so the closer to 0 the sooner it is preloaded
+        preloadManager.setCurrentPlayingIndex(0);
+        preloadManager.addListener(
+            new PreloadManagerListener() {
+                @Override
+                public void onCompleted(MediaItem mediaItem) {
+                    setState(mediaItem, STATE_PRELOADED);
+                }
+
+                @Override
+                public void onError(PreloadException error) {
+                    Log.w(TAG, "Could not preload audio source", error);
+                    setState(error.mediaItem, STATE_ERROR);
+                }
+            }
+        );
+    }
+
+    public ExoPlayer buildPlayer() {
+        return playbackThreads.buildPlayer(looper -> {
+            ExoPlayer.Builder builder = newPlayerBuilder();
+
+            // Without shared threads the player starts its own
+            if (looper != null) {
+                builder.setPlaybackLooper(looper);
+            }
+
+            return builder.build();
+        });
+    }
+
+    /**
+     * @return A player that can take over the audio source's preloaded media, `null` if none
+     *     was preloaded for it
+     */
+    public ExoPlayer buildTakeOverPlayer(AudioSource audioSource) {
+        if (getMediaSource(audioSource) == null) {
+            return null;
+        }
+
+        ExoPlayer player = playbackThreads.buildPreloadPlayer(() ->
+            preloadManagerBuilder.buildExoPlayer(newPlayerBuilder())
+        );
+        takeOverPlayers.add(player);
+
+        return player;
+    }
+
+    /**
+     * Only players from {@link #buildTakeOverPlayer} can take over a preloaded source.
+     */
+    public boolean canTakeOver(ExoPlayer player) {
+        return takeOverPlayers.contains(player);
+    }
+
+    public void preload(AudioSource audioSource, int priority) {
+        if (audioSource.useForNotification || audioSource.isInitialized()) {
+            return;
+        }
+
+        remove(audioSource.id);
+
+        MediaItem mediaItem = audioSource
+            .buildMediaItem()
+            .buildUpon()
+            .setMediaId(audioSource.id)
+            .build();
+
+        entries.put(audioSource.id, new PreloadEntry(audioSource.source, mediaItem, priority));
+        audioSource.setPreloader(this);
+
+        preloadManager.add(mediaItem, priority);
+        trimToMaxSources();
+        preloadManager.invalidate();
+    }
+
+    public MediaSource getMediaSource(AudioSource audioSource) {
+        PreloadEntry entry = entries.get(audioSource.id);
+
+        if (entry == null || !entry.source.equals(audioSource.source)) {
+            return null;
+        }
+
+        return preloadManager.getMediaSource(entry.mediaItem);
+    }
+
+    public void remove(String audioId) {
+        PreloadEntry entry = entries.remove(audioId);
+
+        if (entry != null) {
+            preloadManager.remove(entry.mediaItem);
+        }
+    }
+
+    public String getState(String audioId) {
+        PreloadEntry entry = entries.get(audioId);
+
+        return entry == null ? STATE_NONE : entry.state;
+    }
+
+    public Bundle getStates(String[] audioIds) {
+        Bundle states = new Bundle();
+
+        for (String audioId : audioIds) {
+            states.putString(audioId, getState(audioId));
+        }
+
+        return states;
+    }
+
+    public void release() {
+        entries.clear();
+        preloadManager.release();
+    }
+
+    private ExoPlayer.Builder newPlayerBuilder() {
+        return new ExoPlayer.Builder(context)
+            .setLooper(AudioThread.getLooper(context))
+            .setWakeMode(C.WAKE_MODE_NETWORK)
+            .setMediaSourceFactory(mediaSourceFactory);
+    }
+
+    private void setState(MediaItem mediaItem, String state) {
+        if (mediaItem == null) {
+            return;
+        }
+
+        PreloadEntry entry = entries.get(mediaItem.mediaId);
+
+        if (entry != null) {
+            entry.state = state;
+        }
+    }
+
+    private void trimToMaxSources() {
+        while (entries.size() > maxSources) {
+            String lowestPriorityId = null;
+            int lowestPriority = Integer.MIN_VALUE;
+
+            for (Map.Entry<String, PreloadEntry> entry : entries.entrySet()) {
+                if (entry.getValue().priority >= lowestPriority) {
+                    lowestPriority = entry.getValue().priority;
+                    lowestPriorityId = entry.getKey();
+                }
+            }
+
+            Log.i(TAG, String.format("Dropping preload of audio source %s", lowestPriorityId));
+            remove(lowestPriorityId);
+        }
+    }
+
+    private static class PreloadEntry {
+
+        final String source;
+        final MediaItem mediaItem;
+        final int priority;
+        String state = STATE_PRELOADING;
+
+        PreloadEntry(String source, MediaItem mediaItem, int priority) {
+            this.source = source;
+            this.mediaItem = mediaItem;
+            this.priority = priority;
+        }
+    }
+}
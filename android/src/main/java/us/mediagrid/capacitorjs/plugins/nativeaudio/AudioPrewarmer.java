@@ -0,0 +1,221 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.media.MediaCodec;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.OptIn;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.MimeTypes;
+import androidx.media3.common.PlaybackException;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.ByteArrayDataSource;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.mediacodec.MediaCodecInfo;
+import androidx.media3.exoplayer.mediacodec.MediaCodecUtil;
+import androidx.media3.exoplayer.source.ProgressiveMediaSource;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Pays the one-time costs of the audio pipeline before the first real `play()`.
+ *
+ * On a background thread, the decoders of common stream formats are looked up (the result
+ * is cached by {@link MediaCodecUtil}) and each is created and released once so its codec
+ * component is loaded. That is all the decoder warm-up there is. Then a pooled player plays
+ * a short clip of silence at volume 0 and goes back to the pool. The clip is 16 bit PCM,
+ * which ExoPlayer plays without a MediaCodec, so it only sets up the audio sink and its
+ * `AudioTrack`.
+ *
+ * Runs once per service. Only used on the players' application thread (see
+ * {@link AudioThread}), apart from the decoder lookup.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class AudioPrewarmer implements Player.Listener {
+
+    private static final String TAG = "AudioPrewarmer";
+    private static final String[] MIME_TYPES = {
+        MimeTypes.AUDIO_AAC,
+        MimeTypes.AUDIO_MPEG,
+        MimeTypes.AUDIO_OPUS,
+    };
+    private static final int SAMPLE_RATE = 44100;
+    private static final int CHANNEL_COUNT = 2;
+    private static final int SILENCE_MS = 200;
+    private static final long TIMEOUT_MS = 5000;
+
+    private final Handler handler = new Handler(Looper.myLooper());
+    private final Runnable timeoutRunner = () -> finish(false);
+    private final PlayerPool playerPool;
+
+    private SettableFuture<Bundle> result = null;
+    private long startedAtMs = 0;
+    private int decoderCount = 0;
+    private ExoPlayer player = null;
+    private boolean released = false;
+
+    public AudioPrewarmer(PlayerPool playerPool) {
+        this.playerPool = playerPool;
+    }
+
+    /**
+     * @return The outcome, the same one for every call after the first
+     */
+    public ListenableFuture<Bundle> prewarm() {
+        if (result != null) {
+            return result;
+        }
+
+        Log.i(TAG, "Pre-warming the audio pipeline");
+
+        result = SettableFuture.create();
+        startedAtMs = SystemClock.elapsedRealtime();
+
+        Thread thread = new Thread(
+            () -> {
+                int count = warmDecoders();
+                handler.post(() -> playSilence(count));
+            },
+            "AudioPrewarmer"
+        );
+        thread.setDaemon(true);
+        thread.start();
+
+        return result;
+    }
+
+    /**
+     * Stops a pre-warm that is still running, for when the service is destroyed.
+     */
+    public void release() {
+        released = true;
+        handler.removeCallbacks(timeoutRunner);
+
+        if (player != null) {
+            player.removeListener(this);
+            player.release();
+            player = null;
+        }
+
+        if (result != null && !result.isDone()) {
+            result.set(buildResult(false));
+        }
+    }
+
+    @Override
+    public void onPlaybackStateChanged(@Player.State int playbackState) {
+        if (playbackState == Player.STATE_ENDED) {
+            finish(true);
+        }
+    }
+
+    @Override
+    public void onPlayerError(PlaybackException error) {
+        Log.w(TAG, "Playing silence failed", error);
+        finish(false);
+    }
+
+    private int warmDecoders() {
+        int count = 0;
+
+        for (String mimeType : MIME_TYPES) {
+            try {
+                List<MediaCodecInfo> decoders = MediaCodecUtil.getDecoderInfos(
+                    mimeType,
+                    false,
+                    false
+                );
+
+                if (decoders.isEmpty()) {
+                    continue;
+                }
+
+                MediaCodec.createByCodecName(decoders.get(0).name).release();
+                count++;
+            } catch (Exception ex) {
+                Log.w(TAG, String.format("Couldn't pre-warm a decoder for %s", mimeType), ex);
+            }
+        }
+
+        return count;
+    }
+
+    private void playSilence(int decoderCount) {
+        this.decoderCount = decoderCount;
+
+        if (released) {
+            return;
+        }
+
+        byte[] silence = buildSilentWav();
+
+        player = playerPool.acquire();
+        player.addListener(this);
+        player.setVolume(0);
+        player.setMediaSource(
+            new ProgressiveMediaSource.Factory(() -> new ByteArrayDataSource(silence))
+                .createMediaSource(MediaItem.fromUri("prewarm://silence"))
+        );
+        player.setPlayWhenReady(true);
+        player.prepare();
+
+        handler.postDelayed(timeoutRunner, TIMEOUT_MS);
+    }
+
+    private void finish(boolean audioOutput) {
+        handler.removeCallbacks(timeoutRunner);
+
+        if (player == null) {
+            return;
+        }
+
+        player.removeListener(this);
+        playerPool.release(player);
+        player = null;
+
+        Bundle outcome = buildResult(audioOutput);
+        Log.i(
+            TAG,
+            String.format(
+                "Pre-warmed %s decoder(s) in %sms, audio output %s",
+                decoderCount,
+                outcome.getLong("durationMs"),
+                audioOutput ? "ready" : "failed"
+            )
+        );
+        result.set(outcome);
+    }
+
+    private Bundle buildResult(boolean audioOutput) {
+        Bundle outcome = new Bundle();
+        outcome.putLong("durationMs", SystemClock.elapsedRealtime() - startedAtMs);
+        outcome.putInt("decoders", decoderCount);
+        outcome.putBoolean("audioOutput", audioOutput);
+
+        return outcome;
+    }
+
+    // 16 bit PCM at a common output format, so the AudioTrack is set up like for most media
+    private static byte[] buildSilentWav() {
+        int blockAlign = CHANNEL_COUNT * 2;
+        int dataSize = SAMPLE_RATE * SILENCE_MS / 1000 * blockAlign;
+        ByteBuffer wav = ByteBuffer.allocate(44 + dataSize).order(ByteOrder.LITTLE_ENDIAN);
+
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + dataSize);
+        wav.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        wav.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16);
+        wav.putShort((short) 1).putShort((short) CHANNEL_COUNT);
+        wav.putInt(SAMPLE_RATE).putInt(SAMPLE_RATE * blockAlign);
+        wav.putShort((short) blockAlign).putShort((short) 16);
+        wav.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(dataSize);
+
+        return wav.array();
+    }
+}
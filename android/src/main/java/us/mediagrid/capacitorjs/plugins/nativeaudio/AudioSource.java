@@ -1,17 +1,23 @@
 package us.mediagrid.capacitorjs.plugins.nativeaudio;
 
-import android.content.Context;
 import android.net.Uri;
 import android.os.Binder;
+import android.os.Bundle;
+import android.os.Looper;
 import android.util.Log;
+import androidx.annotation.OptIn;
 import androidx.media3.common.AudioAttributes;
 import androidx.media3.common.C;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.MediaMetadata;
 import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.ExoPlayer;
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import androidx.media3.exoplayer.source.MediaSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class AudioSource extends Binder {
 
@@ -23,18 +29,40 @@ public class AudioSource extends Binder {
     public boolean useForNotification;
     public boolean isBackgroundMusic;
     public boolean loopAudio = false;
+    public Boolean useCache = null;
+    public int timeUpdateIntervalMs = 250;
+    // Played through the shared SoundEffectEngine instead of an ExoPlayer
+    public boolean lowLatency = false;
 
     public String onPlaybackStatusChangeCallbackId;
     public String onReadyCallbackId;
     public String onEndCallbackId;
+    public String onQueueItemChangeCallbackId;
 
     private AudioPlayerPlugin pluginOwner;
 
     private Player player;
     private PlayerEventListener playerEventListener;
-
-    private boolean isPlaying = false;
-    private boolean isStopped = true;
+    private StreamMetadataListener streamMetadataListener;
+    private SoundEffectEngine soundEffectEngine;
+    private SoundEffectEngine.SoundEffect soundEffect;
+    private PlayerPool playerPool;
+    private AudioPreloader preloader;
+    private PlayerSwap playerSwap = null;
+
+    private volatile boolean isPlaying = false;
+    private volatile boolean isStopped = true;
+    private volatile PlaybackSnapshot snapshot = PlaybackSnapshot.EMPTY;
+    private volatile AudioSources registry = null;
+
+    // Parallel to the player's playlist, empty unless a queue was set. Only accessed on the
+    // player's application thread.
+    private final List<QueueItem> queue = new ArrayList<>();
+
+    private final PlaybackMetrics playbackMetrics = new PlaybackMetrics();
+    private final AtomicInteger metadataGeneration = new AtomicInteger();
+    // Created by whichever thread updates the metadata first, written only while synchronized
+    private volatile MetadataPublisher metadataPublisher = null;
 
     public AudioSource(
         AudioPlayerPlugin pluginOwner,
@@ -56,67 +84,317 @@ public class AudioSource extends Binder {
         this.audioMetadata.setPluginOwner(pluginOwner).setUpdateCallBack(this::updateMetadata);
     }
 
-    public void initialize(Context context) {
+    /**
+     * @param pool The service's players, set up with its media cache and playback threads
+     */
+    public void initialize(PlayerPool pool) {
         if (useForNotification || player != null) {
             return;
         }
 
         setIsStopped();
 
-        player = new ExoPlayer.Builder(context).setWakeMode(C.WAKE_MODE_NETWORK).build();
+        // Kept when taking over preloaded media too, the standby players come from it
+        playerPool = pool;
+
+        ExoPlayer takeOverPlayer = preloader != null ? preloader.buildTakeOverPlayer(this) : null;
+        player = takeOverPlayer != null ? takeOverPlayer : pool.acquire();
         setPlayerAttributes();
 
         player.prepare();
     }
 
+    /**
+     * For `lowLatency` sources, decodes the audio into the engine instead of creating a player.
+     */
+    public void initializeSoundEffect(SoundEffectEngine engine, Consumer<Boolean> onLoaded) {
+        // Dropped so this initialize tries again
+        if (soundEffect != null && soundEffect.hasFailed()) {
+            soundEffectEngine.unload(soundEffect);
+            soundEffect = null;
+        }
+
+        if (soundEffect != null) {
+            // Answers once a load still in flight finishes
+            soundEffectEngine.whenLoaded(soundEffect, onLoaded);
+
+            return;
+        }
+
+        soundEffectEngine = engine;
+        soundEffect = engine.load(id, source, loopAudio, onLoaded);
+    }
+
+    @OptIn(markerClass = UnstableApi.class)
     public void setPlayerAttributes() {
-        player.setAudioAttributes(
-            new AudioAttributes.Builder()
-                .setUsage(C.USAGE_MEDIA)
-                .setContentType(
-                    useForNotification ? C.AUDIO_CONTENT_TYPE_SPEECH : C.AUDIO_CONTENT_TYPE_MUSIC
-                )
-                .build(),
-            useForNotification
-        );
+        player.setAudioAttributes(buildAudioAttributes(), useForNotification);
+
+        MediaSource preloadedSource = preloader != null ? preloader.getMediaSource(this) : null;
+
+        if (
+            preloadedSource != null &&
+            player instanceof ExoPlayer &&
+            preloader.canTakeOver((ExoPlayer) player)
+        ) {
+            ((ExoPlayer) player).setMediaSource(preloadedSource);
+        } else {
+            player.setMediaItem(buildMediaItem());
+        }
 
-        player.setMediaItem(buildMediaItem());
         player.setRepeatMode(loopAudio ? ExoPlayer.REPEAT_MODE_ONE : ExoPlayer.REPEAT_MODE_OFF);
         player.setPlayWhenReady(false);
         player.addListener(new PlayerEventListener(pluginOwner, this));
+        playbackMetrics.onPrepareRequested();
+
+        // The notification source's metrics are fed by the service, from the session's player
+        if (player instanceof ExoPlayer) {
+            ((ExoPlayer) player).addAnalyticsListener(playbackMetrics);
+        }
+
+        // The notification source's MediaController doesn't get `onMetadata`, the service
+        // listens on the session's player instead
+        if (audioMetadata.fromStream && player instanceof ExoPlayer) {
+            streamMetadataListener = new StreamMetadataListener(() -> this);
+            player.addListener(streamMetadataListener);
+        }
     }
 
     public void changeAudioSource(String newSource) {
+        cancelPlayerSwap();
+
         source = newSource;
+        queue.clear();
 
         Player player = getPlayer();
 
+        playbackMetrics.onPrepareRequested();
         player.setMediaItem(buildMediaItem());
+        player.setRepeatMode(loopAudio ? ExoPlayer.REPEAT_MODE_ONE : ExoPlayer.REPEAT_MODE_OFF);
         player.setPlayWhenReady(false);
         player.prepare();
     }
 
+    /**
+     * Changes the source without a gap: the current player keeps playing while the new source
+     * buffers in a standby player, see {@link PlayerSwap}. The notification source always has
+     * the media session's player and changes the source in place.
+     *
+     * Must be called on the player's application thread.
+     *
+     * @param onDone Runs once the new source is playing, or would be if the audio source was
+     */
+    public void changeAudioSource(
+        String newSource,
+        long crossfadeMs,
+        long timeoutMs,
+        Runnable onDone
+    ) {
+        if (useForNotification || !(player instanceof ExoPlayer)) {
+            changeAudioSource(newSource);
+            onDone.run();
+
+            return;
+        }
+
+        cancelPlayerSwap();
+        playbackMetrics.onPrepareRequested();
+
+        ExoPlayer standbyPlayer = playerPool.acquire();
+
+        standbyPlayer.setAudioAttributes(buildAudioAttributes(), false);
+        standbyPlayer.setMediaItem(
+            buildMediaItem(
+                newSource,
+                getMediaMetadata(),
+                isCached()
+            )
+        );
+        standbyPlayer.setRepeatMode(
+            loopAudio ? ExoPlayer.REPEAT_MODE_ONE : ExoPlayer.REPEAT_MODE_OFF
+        );
+        standbyPlayer.setPlaybackParameters(player.getPlaybackParameters());
+        standbyPlayer.setVolume(player.getVolume());
+        standbyPlayer.setPlayWhenReady(false);
+
+        playerSwap = new PlayerSwap(this, newSource, standbyPlayer, crossfadeMs, onDone);
+        playerSwap.start(timeoutMs);
+    }
+
+    /**
+     * Replaces what the player plays with a playlist. The player buffers the next item ahead
+     * and moves on to it without a gap, trimming encoder delay and padding where the files
+     * carry gapless info. With `loopAudio`, the whole queue repeats.
+     *
+     * Must be called on the player's application thread.
+     */
+    public void setQueue(List<QueueItem> items, int startIndex) {
+        queue.clear();
+        queue.addAll(items);
+
+        Player player = getPlayer();
+
+        playbackMetrics.onPrepareRequested();
+        player.setMediaItems(buildMediaItems(items), startIndex, C.TIME_UNSET);
+        player.setRepeatMode(loopAudio ? ExoPlayer.REPEAT_MODE_ALL : ExoPlayer.REPEAT_MODE_OFF);
+        player.prepare();
+
+        // Not a transition when the start index is the current index, apply it ourselves
+        onQueueItemChanged();
+    }
+
+    /**
+     * Adds items to the end of the queue, turning the current audio into the first item
+     * if no queue was set. Must be called on the player's application thread.
+     */
+    public void enqueue(List<QueueItem> items) {
+        if (queue.isEmpty()) {
+            queue.add(new QueueItem(source, audioMetadata.snapshot(), useCache));
+        }
+
+        queue.addAll(items);
+
+        Player player = getPlayer();
+
+        player.addMediaItems(buildMediaItems(items));
+        player.setRepeatMode(loopAudio ? ExoPlayer.REPEAT_MODE_ALL : ExoPlayer.REPEAT_MODE_OFF);
+    }
+
+    /**
+     * @return `false` if already at the last item
+     */
+    public boolean skipNext() {
+        Player player = getPlayer();
+
+        if (!player.hasNextMediaItem()) {
+            return false;
+        }
+
+        player.seekToNextMediaItem();
+
+        return true;
+    }
+
+    /**
+     * Always goes to the previous item, unlike the notification's button which restarts the
+     * current item first.
+     *
+     * @return `false` if already at the first item
+     */
+    public boolean skipPrevious() {
+        Player player = getPlayer();
+
+        if (!player.hasPreviousMediaItem()) {
+            return false;
+        }
+
+        player.seekToPreviousMediaItem();
+
+        return true;
+    }
+
+    public int getQueueIndex() {
+        return queue.isEmpty() ? 0 : getPlayer().getCurrentMediaItemIndex();
+    }
+
+    public int getQueueSize() {
+        return Math.max(1, queue.size());
+    }
+
+    /**
+     * Called by the {@link PlayerEventListener} when the player moved to another item. Makes
+     * the item's source and metadata the current ones, which also publishes the metadata with
+     * its artwork to the notification.
+     *
+     * @return `false` if there is no queue, e.g. a single looping source started over
+     */
+    public boolean onQueueItemChanged() {
+        int index = getPlayer().getCurrentMediaItemIndex();
+
+        if (index < 0 || index >= queue.size()) {
+            return false;
+        }
+
+        QueueItem item = queue.get(index);
+
+        source = item.source;
+        changeMetadata(item.metadata);
+
+        return true;
+    }
+
     public void changeMetadata(AudioMetadata metadata) {
         audioMetadata.update(metadata);
         updateMetadata();
     }
 
+    /**
+     * Safe to call from any thread.
+     */
     public float getDuration() {
-        long duration = getPlayer().getDuration();
+        return snapshot.getDuration();
+    }
+
+    /**
+     * Safe to call from any thread.
+     */
+    public float getCurrentTime() {
+        return snapshot.getCurrentTime();
+    }
 
-        if (duration == C.TIME_UNSET) {
-            return -1;
+    /**
+     * The playback state as of the last player event, safe to call from any thread.
+     */
+    public PlaybackSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Recaptures the snapshot from the player. Must be called on the player's application
+     * thread.
+     */
+    public void updateSnapshot() {
+        Player player = getPlayer();
+
+        if (player == null) {
+            snapshot = PlaybackSnapshot.EMPTY;
+
+            return;
         }
 
-        return duration / 1000.0f;
+        snapshot = PlaybackSnapshot.capture(player, getStatus());
     }
 
-    public float getCurrentTime() {
-        return getPlayer().getCurrentPosition() / 1000.0f;
+    /**
+     * The thread the player takes commands and sends events on, see {@link AudioThread}. The
+     * notification's player is the media session's, which is on the main thread.
+     */
+    public Looper getApplicationLooper() {
+        return useForNotification
+            ? Looper.getMainLooper()
+            : AudioThread.getLooper(pluginOwner.getContext());
+    }
+
+    void setRegistry(AudioSources registry) {
+        this.registry = registry;
+    }
+
+    public String getStatus() {
+        if (isPlaying) {
+            return "playing";
+        }
+
+        return isStopped ? "stopped" : "paused";
     }
 
     public void play() {
+        if (soundEffect != null) {
+            soundEffectEngine.play(soundEffect);
+
+            return;
+        }
+
         setIsPlaying();
+        playbackMetrics.onPlayRequested();
 
         Player player = getPlayer();
 
@@ -132,16 +410,33 @@ public class AudioSource extends Binder {
     }
 
     public void pause() {
+        if (soundEffect != null) {
+            soundEffectEngine.pause(soundEffect);
+
+            return;
+        }
+
         setIsPaused();
         getPlayer().pause();
         audioMetadata.stopUpdater();
     }
 
     public void seek(long timeInSeconds) {
+        // Sound effects always play from the start
+        if (soundEffect != null) {
+            return;
+        }
+
         getPlayer().seekTo(timeInSeconds * 1000);
     }
 
     public void stop() {
+        if (soundEffect != null) {
+            soundEffectEngine.stop(soundEffect);
+
+            return;
+        }
+
         setIsStopped();
 
         Player player = getPlayer();
@@ -151,10 +446,22 @@ public class AudioSource extends Binder {
     }
 
     public void setVolume(float volume) {
+        if (soundEffect != null) {
+            soundEffectEngine.setVolume(soundEffect, volume);
+
+            return;
+        }
+
         getPlayer().setVolume(volume);
     }
 
     public void setRate(float rate) {
+        if (soundEffect != null) {
+            soundEffectEngine.setRate(soundEffect, rate);
+
+            return;
+        }
+
         getPlayer().setPlaybackSpeed(rate);
     }
 
@@ -166,6 +473,10 @@ public class AudioSource extends Binder {
         onEndCallbackId = callbackId;
     }
 
+    public void setOnQueueItemChange(String callbackId) {
+        onQueueItemChangeCallbackId = callbackId;
+    }
+
     public void setOnPlaybackStatusChange(String callbackId) {
         onPlaybackStatusChangeCallbackId = callbackId;
     }
@@ -189,16 +500,19 @@ public class AudioSource extends Binder {
     public void setIsPlaying() {
         this.isStopped = false;
         this.isPlaying = true;
+        onStatusChanged();
     }
 
     public void setIsPaused() {
         this.isStopped = false;
         this.isPlaying = false;
+        onStatusChanged();
     }
 
     public void setIsStopped() {
         this.isStopped = true;
         this.isPlaying = false;
+        onStatusChanged();
     }
 
     public Player getPlayer() {
@@ -210,11 +524,103 @@ public class AudioSource extends Binder {
     }
 
     public void releasePlayer() {
+        cancelPlayerSwap();
+
         if (player != null) {
-            player.release();
+            if (isPooled(player)) {
+                if (playerEventListener != null) {
+                    player.removeListener(playerEventListener);
+                }
+
+                if (streamMetadataListener != null) {
+                    player.removeListener(streamMetadataListener);
+                }
+
+                ((ExoPlayer) player).removeAnalyticsListener(playbackMetrics);
+                playerPool.release((ExoPlayer) player);
+            } else {
+                player.release();
+            }
+
+            playerPool = null;
             player = null;
             playerEventListener = null;
+            snapshot = PlaybackSnapshot.EMPTY;
+            streamMetadataListener = null;
+        }
+
+        if (preloader != null) {
+            preloader.remove(id);
+            preloader = null;
+        }
+    }
+
+    /**
+     * Called by the {@link PlayerSwap} to make the standby player this source's player. The
+     * listeners move over, the previous player is left playing for the caller to fade out.
+     */
+    void attachPlayer(ExoPlayer newPlayer, String newSource) {
+        Player previousPlayer = player;
+
+        if (playerEventListener != null) {
+            previousPlayer.removeListener(playerEventListener);
+            newPlayer.addListener(playerEventListener);
+        }
+
+        if (streamMetadataListener != null) {
+            previousPlayer.removeListener(streamMetadataListener);
+            newPlayer.addListener(streamMetadataListener);
+        }
+
+        if (previousPlayer instanceof ExoPlayer) {
+            ((ExoPlayer) previousPlayer).removeAnalyticsListener(playbackMetrics);
         }
+
+        newPlayer.addAnalyticsListener(playbackMetrics);
+
+        player = newPlayer;
+        source = newSource;
+        queue.clear();
+        updateSnapshot();
+
+        // The new player got ready before it had the listeners, replay it for `onAudioReady`
+        // and the prepare to ready latency
+        if (playerEventListener != null) {
+            playerEventListener.onPlaybackStateChanged(Player.STATE_READY);
+        }
+
+        playbackMetrics.onPlaybackStateChanged(null, Player.STATE_READY);
+    }
+
+    /**
+     * Hands a player that is no longer this source's player back to the pool, or releases it.
+     */
+    void returnPlayer(Player oldPlayer) {
+        if (isPooled(oldPlayer)) {
+            playerPool.release((ExoPlayer) oldPlayer);
+        } else {
+            oldPlayer.release();
+        }
+    }
+
+    /**
+     * Players that took over preloaded media share the preload manager's load control, so they
+     * are released instead of going back to the pool.
+     */
+    private boolean isPooled(Player player) {
+        return (
+            playerPool != null &&
+            player instanceof ExoPlayer &&
+            (preloader == null || !preloader.canTakeOver((ExoPlayer) player))
+        );
+    }
+
+    public PlaybackMetrics getPlaybackMetrics() {
+        return playbackMetrics;
+    }
+
+    public void setPreloader(AudioPreloader preloader) {
+        this.preloader = preloader;
     }
 
     public void setEventListener(PlayerEventListener listener) {
@@ -230,56 +636,181 @@ public class AudioSource extends Binder {
     }
 
     public MediaItem buildMediaItem() {
-        return new MediaItem.Builder().setMediaMetadata(getMediaMetadata()).setUri(source).build();
+        return buildMediaItem(source, getMediaMetadata(), isCached());
+    }
+
+    /**
+     * Whether the source goes through the media cache, `useCache` if it was set. Sources with
+     * metadata from the stream or a metadata update URL are typically live streams, which
+     * would fill the cache without end and replay stale audio, so they aren't by default.
+     */
+    public boolean isCached() {
+        if (useCache != null) {
+            return useCache;
+        }
+
+        return !audioMetadata.fromStream && !audioMetadata.hasUpdateUrl();
     }
 
     public void destroy() {
         audioMetadata.stopUpdater();
 
+        MetadataPublisher metadataPublisher = this.metadataPublisher;
+
+        if (metadataPublisher != null) {
+            metadataPublisher.cancel();
+        }
+
+        if (soundEffect != null) {
+            soundEffectEngine.unload(soundEffect);
+            soundEffect = null;
+        }
+
         if (!useForNotification) {
             releasePlayer();
         }
     }
 
+    public synchronized MetadataPublisher getMetadataPublisher() {
+        if (metadataPublisher == null) {
+            metadataPublisher = new MetadataPublisher(
+                getApplicationLooper(),
+                pluginOwner.getAudioPlayerConfig().getMetadataDebounceWindowMs(),
+                this::replaceMediaMetadata
+            );
+        }
+
+        return metadataPublisher;
+    }
+
+    private void onStatusChanged() {
+        updateSnapshot();
+
+        AudioSources registry = this.registry;
+
+        if (registry != null) {
+            registry.updateStatusIndex(this);
+        }
+    }
+
+    /**
+     * Builds the new media metadata (including artwork) in the background and hands it to the
+     * publisher, which only touches the player on its application thread. Safe to call from
+     * any thread.
+     */
     private void updateMetadata() {
+        if (pluginOwner.executorService.isShutdown()) {
+            return;
+        }
+
+        int generation = metadataGeneration.incrementAndGet();
+        AudioMetadata metadata = audioMetadata.snapshot();
+        MetadataPublisher publisher = getMetadataPublisher();
+
+        pluginOwner.executorService.submit(() -> {
+            MediaMetadata mediaMetadata = getMediaMetadata(metadata);
+
+            // A newer update is already on its way
+            if (generation == metadataGeneration.get()) {
+                publisher.submit(mediaMetadata);
+            }
+        });
+    }
+
+    private boolean replaceMediaMetadata(MediaMetadata mediaMetadata) {
+        if (!isInitialized()) {
+            return false;
+        }
+
         var currentMediaItem = getPlayer().getCurrentMediaItem();
-        var newMediaItem = currentMediaItem
-            .buildUpon()
-            .setMediaMetadata(getMediaMetadata())
+
+        if (currentMediaItem == null || currentMediaItem.mediaMetadata.equals(mediaMetadata)) {
+            return false;
+        }
+
+        var newMediaItem = currentMediaItem.buildUpon().setMediaMetadata(mediaMetadata).build();
+
+        getPlayer().replaceMediaItem(getPlayer().getCurrentMediaItemIndex(), newMediaItem);
+
+        return true;
+    }
+
+    private void cancelPlayerSwap() {
+        if (playerSwap != null) {
+            playerSwap.cancel();
+            playerSwap = null;
+        }
+    }
+
+    private AudioAttributes buildAudioAttributes() {
+        return new AudioAttributes.Builder()
+            .setUsage(C.USAGE_MEDIA)
+            .setContentType(
+                useForNotification ? C.AUDIO_CONTENT_TYPE_SPEECH : C.AUDIO_CONTENT_TYPE_MUSIC
+            )
             .build();
+    }
+
+    private List<MediaItem> buildMediaItems(List<QueueItem> items) {
+        List<MediaItem> mediaItems = new ArrayList<>(items.size());
+
+        // Items play on the source's player, so they follow its rule unless they set `cache`
+        boolean cached = isCached();
+
+        // Artwork is left out here, it's loaded in the background once the item is current
+        for (QueueItem item : items) {
+            mediaItems.add(
+                buildMediaItem(
+                    item.source,
+                    getMediaMetadata(item.metadata, false),
+                    item.useCache != null ? item.useCache : cached
+                )
+            );
+        }
 
-        getPlayer().replaceMediaItem(0, newMediaItem);
+        return mediaItems;
+    }
+
+    private static MediaItem buildMediaItem(
+        String source,
+        MediaMetadata mediaMetadata,
+        boolean useCache
+    ) {
+        Bundle requestExtras = new Bundle();
+        requestExtras.putBoolean(MediaCache.EXTRA_USE_CACHE, useCache);
+
+        return new MediaItem.Builder()
+            .setMediaMetadata(mediaMetadata)
+            .setRequestMetadata(
+                new MediaItem.RequestMetadata.Builder().setExtras(requestExtras).build()
+            )
+            .setUri(source)
+            .build();
     }
 
     private MediaMetadata getMediaMetadata() {
+        return getMediaMetadata(audioMetadata);
+    }
+
+    private MediaMetadata getMediaMetadata(AudioMetadata metadata) {
+        return getMediaMetadata(metadata, true);
+    }
+
+    private MediaMetadata getMediaMetadata(AudioMetadata metadata, boolean withArtwork) {
         MediaMetadata.Builder builder = new MediaMetadata.Builder()
-            .setAlbumTitle(audioMetadata.albumTitle == null ? "" : audioMetadata.albumTitle)
-            .setArtist(audioMetadata.artistName == null ? "" : audioMetadata.artistName)
-            .setTitle(audioMetadata.songTitle == null ? "" : audioMetadata.songTitle);
+            .setAlbumTitle(metadata.albumTitle == null ? "" : metadata.albumTitle)
+            .setArtist(metadata.artistName == null ? "" : metadata.artistName)
+            .setTitle(metadata.songTitle == null ? "" : metadata.songTitle);
 
-        if (useForNotification && audioMetadata.artworkSource != null) {
+        if (withArtwork && useForNotification && metadata.artworkSource != null) {
             try {
-                if (audioMetadata.artworkSource.startsWith("https:")) {
-                    builder.setArtworkUri(Uri.parse(audioMetadata.artworkSource));
+                if (metadata.artworkSource.startsWith("https:")) {
+                    builder.setArtworkUri(Uri.parse(metadata.artworkSource));
                 } else {
-                    int bufferLength = 4 * 0x400; // 4KB
-                    byte[] buffer = new byte[bufferLength];
-                    int readLength;
-                    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-                    InputStream inputStream = pluginOwner
-                        .getContext()
-                        .getAssets()
-                        .open("public/" + audioMetadata.artworkSource);
-
-                    while ((readLength = inputStream.read(buffer, 0, bufferLength)) != -1) {
-                        outputStream.write(buffer, 0, readLength);
-                    }
-
-                    inputStream.close();
-
                     builder.maybeSetArtworkData(
-                        outputStream.toByteArray(),
+                        ArtworkCache.getInstance(pluginOwner.getContext()).getAssetArtwork(
+                            metadata.artworkSource
+                        ),
                         MediaMetadata.PICTURE_TYPE_OTHER
                     );
                 }
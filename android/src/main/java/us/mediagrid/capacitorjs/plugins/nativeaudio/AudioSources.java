@@ -2,32 +2,70 @@ package us.mediagrid.capacitorjs.plugins.nativeaudio;
 
 import android.os.Binder;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import us.mediagrid.capacitorjs.plugins.nativeaudio.exceptions.AudioSourceAlreadyExistsException;
 
+/**
+ * The registry of audio sources, shared by the plugin and the service.
+ *
+ * Safe to use from any thread. The notification source has its own slot and sources are
+ * indexed by status and by `isBackgroundMusic`, so none of the lookups scan every source.
+ * Lists returned are snapshots and can be iterated while sources are added or removed.
+ */
 public class AudioSources extends Binder {
 
-    private HashMap<String, AudioSource> audioSources = new HashMap<>();
+    private final ConcurrentHashMap<String, AudioSource> audioSources = new ConcurrentHashMap<>();
+    private final AtomicReference<AudioSource> notificationSource = new AtomicReference<>();
+    private final Set<AudioSource> backgroundMusicSources = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<AudioSource>> sourcesByStatus = new ConcurrentHashMap<>();
+
+    public AudioSources() {
+        sourcesByStatus.put("playing", ConcurrentHashMap.newKeySet());
+        sourcesByStatus.put("paused", ConcurrentHashMap.newKeySet());
+        sourcesByStatus.put("stopped", ConcurrentHashMap.newKeySet());
+    }
 
     public AudioSource get(String sourceId) {
-        return audioSources.get(sourceId);
+        return sourceId == null ? null : audioSources.get(sourceId);
     }
 
     public void add(AudioSource source) throws AudioSourceAlreadyExistsException {
-        if (exists(source)) {
+        if (audioSources.putIfAbsent(source.id, source) != null) {
             throw new AudioSourceAlreadyExistsException(source.id);
         }
 
-        audioSources.put(source.id, source);
+        if (source.useForNotification && !notificationSource.compareAndSet(null, source)) {
+            audioSources.remove(source.id, source);
+
+            throw new AudioSourceAlreadyExistsException(source.id);
+        }
+
+        if (source.isBackgroundMusic) {
+            backgroundMusicSources.add(source);
+        }
+
+        source.setRegistry(this);
+        updateStatusIndex(source);
     }
 
     public boolean remove(String sourceId) {
-        if (!exists(sourceId)) {
+        AudioSource source = get(sourceId);
+
+        if (source == null || !audioSources.remove(sourceId, source)) {
             return false;
         }
 
-        audioSources.remove(sourceId);
+        source.setRegistry(null);
+        notificationSource.compareAndSet(source, null);
+        backgroundMusicSources.remove(source);
+
+        for (Set<AudioSource> sources : sourcesByStatus.values()) {
+            sources.remove(source);
+        }
 
         return true;
     }
@@ -37,21 +75,32 @@ public class AudioSources extends Binder {
     }
 
     public boolean exists(String sourceId) {
-        return audioSources.containsKey(sourceId);
+        return sourceId != null && audioSources.containsKey(sourceId);
     }
 
     public boolean hasNotification() {
-        return forNotification() != null;
+        return notificationSource.get() != null;
     }
 
     public AudioSource forNotification() {
-        for (AudioSource audioSource : audioSources.values()) {
-            if (audioSource.useForNotification) {
-                return audioSource;
-            }
-        }
+        return notificationSource.get();
+    }
+
+    public List<AudioSource> all() {
+        return new ArrayList<>(audioSources.values());
+    }
+
+    /**
+     * @param status playing, paused or stopped
+     */
+    public List<AudioSource> withStatus(String status) {
+        Set<AudioSource> sources = sourcesByStatus.get(status);
+
+        return sources == null ? new ArrayList<>() : new ArrayList<>(sources);
+    }
 
-        return null;
+    public List<AudioSource> backgroundMusic() {
+        return new ArrayList<>(backgroundMusicSources);
     }
 
     public int count() {
@@ -59,20 +108,37 @@ public class AudioSources extends Binder {
     }
 
     public void destroyAllNonNotificationSources() {
-        List<AudioSource> sourcesToRemove = new ArrayList<>();
-
-        for (AudioSource audioSource : audioSources.values()) {
+        for (AudioSource audioSource : all()) {
             if (audioSource.useForNotification) {
                 continue;
             }
 
-            audioSource.releasePlayer();
+            if (remove(audioSource.id)) {
+                audioSource.releasePlayer();
+            }
+        }
+    }
 
-            sourcesToRemove.add(audioSource);
+    /**
+     * Called by the audio source when its status changes. Status changes of a source happen
+     * on its player's application thread, so there is only ever one update per source at a time.
+     */
+    void updateStatusIndex(AudioSource source) {
+        String status = source.getStatus();
+
+        for (Map.Entry<String, Set<AudioSource>> entry : sourcesByStatus.entrySet()) {
+            if (entry.getKey().equals(status)) {
+                entry.getValue().add(source);
+            } else {
+                entry.getValue().remove(source);
+            }
         }
 
-        for (AudioSource sourceToRemove : sourcesToRemove) {
-            audioSources.remove(sourceToRemove.id);
+        // Removed while the status was changing
+        if (audioSources.get(source.id) != source) {
+            for (Set<AudioSource> sources : sourcesByStatus.values()) {
+                sources.remove(source);
+            }
         }
     }
 }
@@ -0,0 +1,47 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.content.Context;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+/**
+ * The application thread of the non-notification players: where the plugin's commands to
+ * them run and their events arrive. With `audioThread` enabled it is a dedicated thread, so
+ * audio control doesn't queue up behind WebView input and rendering on the main thread, and
+ * the other way around. Otherwise it is the main thread.
+ *
+ * The notification's player stays on the main thread, it belongs to the media session and
+ * the plugin only talks to it through a MediaController.
+ *
+ * The thread is started on first use and lives as long as the process, since the plugin and
+ * the service share it and either can outlive the other.
+ */
+public class AudioThread {
+
+    private static final String TAG = "AudioThread";
+
+    private static Looper looper = null;
+
+    private AudioThread() {}
+
+    public static synchronized Looper getLooper(Context context) {
+        if (looper == null) {
+            if (AudioPlayerConfig.load(context).isAudioThreadEnabled()) {
+                HandlerThread thread = new HandlerThread(
+                    "AudioApplication",
+                    Process.THREAD_PRIORITY_AUDIO
+                );
+                thread.start();
+                looper = thread.getLooper();
+
+                Log.i(TAG, "Started the audio application thread");
+            } else {
+                looper = Looper.getMainLooper();
+            }
+        }
+
+        return looper;
+    }
+}
@@ -0,0 +1,131 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.json.JSONObject;
+import us.mediagrid.capacitorjs.plugins.nativeaudio.exceptions.InvalidBatchException;
+
+/**
+ * One operation of a `batch` call. The whole batch is parsed and validated before any
+ * operation runs, so an invalid batch changes nothing.
+ */
+public class BatchOperation {
+
+    public static final List<String> METHODS = Arrays.asList(
+        "play",
+        "pause",
+        "seek",
+        "stop",
+        "setVolume",
+        "setRate",
+        "getDuration",
+        "getCurrentTime",
+        "isPlaying"
+    );
+
+    public final String method;
+    public final String audioId;
+
+    private final JSONObject params;
+
+    private BatchOperation(String method, String audioId, JSONObject params) {
+        this.method = method;
+        this.audioId = audioId;
+        this.params = params;
+    }
+
+    /**
+     * @throws InvalidBatchException If any operation is invalid, naming the first one
+     */
+    public static List<BatchOperation> parse(JSArray ops, AudioSources audioSources)
+        throws Exception {
+        List<BatchOperation> operations = new ArrayList<>(ops.length());
+
+        for (int i = 0; i < ops.length(); i++) {
+            JSONObject op = ops.getJSONObject(i);
+            String method = op.optString("method");
+            String audioId = op.optString("audioId");
+
+            if (!METHODS.contains(method)) {
+                throw new InvalidBatchException(
+                    String.format("Operation %d has an unsupported method \"%s\"", i, method)
+                );
+            }
+
+            if (!audioSources.exists(audioId)) {
+                throw new InvalidBatchException(
+                    String.format("Operation %d has an unknown audio ID \"%s\"", i, audioId)
+                );
+            }
+
+            String requiredParam = getRequiredParam(method);
+
+            if (requiredParam != null && !op.has(requiredParam)) {
+                throw new InvalidBatchException(
+                    String.format("Operation %d (%s) is missing \"%s\"", i, method, requiredParam)
+                );
+            }
+
+            operations.add(new BatchOperation(method, audioId, op));
+        }
+
+        return operations;
+    }
+
+    /**
+     * Must be called on the audio source's application thread.
+     */
+    public JSObject run(AudioSource audioSource) throws Exception {
+        JSObject result = new JSObject().put("audioId", audioId).put("method", method);
+
+        switch (method) {
+            case "play":
+                audioSource.play();
+                break;
+            case "pause":
+                audioSource.pause();
+                break;
+            case "seek":
+                audioSource.seek(params.getInt("timeInSeconds"));
+                break;
+            case "stop":
+                audioSource.stop();
+                break;
+            case "setVolume":
+                audioSource.setVolume((float) params.getDouble("volume"));
+                break;
+            case "setRate":
+                audioSource.setRate((float) params.getDouble("rate"));
+                break;
+            case "getDuration":
+                result.put("duration", audioSource.getDuration());
+                break;
+            case "getCurrentTime":
+                result.put("currentTime", audioSource.getCurrentTime());
+                break;
+            case "isPlaying":
+                result.put("isPlaying", audioSource.isPlaying());
+                break;
+            default:
+                break;
+        }
+
+        return result.put("success", true);
+    }
+
+    private static String getRequiredParam(String method) {
+        switch (method) {
+            case "seek":
+                return "timeInSeconds";
+            case "setVolume":
+                return "volume";
+            case "setRate":
+                return "rate";
+            default:
+                return null;
+        }
+    }
+}
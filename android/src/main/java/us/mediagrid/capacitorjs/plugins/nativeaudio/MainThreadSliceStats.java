@@ -0,0 +1,55 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.util.Log;
+import com.getcapacitor.JSObject;
+
+/**
+ * Records how long work posted to an application thread took, so it can be checked
+ * that it stays well within a frame. That's the main thread, or with `audioThread` enabled
+ * the audio thread for the non-notification players.
+ */
+public class MainThreadSliceStats {
+
+    private static final String TAG = "MainThreadSliceStats";
+
+    private final String name;
+
+    private long count = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+    private long lastNanos = 0;
+
+    public MainThreadSliceStats(String name) {
+        this.name = name;
+    }
+
+    public synchronized void record(long durationNanos) {
+        count++;
+        totalNanos += durationNanos;
+        lastNanos = durationNanos;
+        maxNanos = Math.max(maxNanos, durationNanos);
+
+        // Called for every slice, don't format a message nobody reads
+        if (!Log.isLoggable(TAG, Log.DEBUG)) {
+            return;
+        }
+
+        Log.d(
+            TAG,
+            String.format(
+                "%s took %.3fms on %s",
+                name,
+                durationNanos / 1e6,
+                Thread.currentThread().getName()
+            )
+        );
+    }
+
+    public synchronized JSObject toJSObject() {
+        return new JSObject()
+            .put("count", count)
+            .put("lastMs", lastNanos / 1e6)
+            .put("maxMs", maxNanos / 1e6)
+            .put("averageMs", count == 0 ? 0 : (totalNanos / (double) count) / 1e6);
+    }
+}
@@ -0,0 +1,274 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+import androidx.annotation.OptIn;
+import androidx.media3.common.C;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.database.StandaloneDatabaseProvider;
+import androidx.media3.datasource.DataSink;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.DefaultDataSource;
+import androidx.media3.datasource.cache.Cache;
+import androidx.media3.datasource.cache.CacheDataSink;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.LeastRecentlyUsedCacheEvictor;
+import androidx.media3.datasource.cache.SimpleCache;
+import androidx.media3.exoplayer.drm.DrmSessionManagerProvider;
+import androidx.media3.exoplayer.source.DefaultMediaSourceFactory;
+import androidx.media3.exoplayer.source.MediaSource;
+import androidx.media3.exoplayer.upstream.LoadErrorHandlingPolicy;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An optional on-disk LRU cache for remote (http/https) audio shared by every player.
+ *
+ * Process-wide, since only one {@link SimpleCache} can use the folder at a time and a
+ * recreated service can't wait for its previous instance to let go of it.
+ *
+ * Whether a media item goes through the cache is decided per item, see {@link #EXTRA_USE_CACHE}.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class MediaCache {
+
+    private static final String TAG = "MediaCache";
+    private static final String CACHE_DIRECTORY = "audio_player_media";
+
+    /**
+     * Request metadata extra on a {@link MediaItem} to opt in or out of the cache.
+     * Items without it are cached when the cache is enabled.
+     */
+    public static final String EXTRA_USE_CACHE = "useCache";
+
+    private final Context context;
+    private final boolean enabled;
+    private final long maxBytes;
+
+    private static MediaCache instance = null;
+
+    private SimpleCache cache = null;
+    private ListeningExecutorService diskExecutor = null;
+
+    private final AtomicLong cachedBytesRead = new AtomicLong();
+    private final AtomicLong cacheIgnoredCount = new AtomicLong();
+
+    MediaCache(Context context, AudioPlayerConfig config) {
+        this.context = context;
+        this.enabled = config.isMediaCacheEnabled();
+        this.maxBytes = config.getMediaCacheMaxBytes();
+
+        if (!enabled) {
+            return;
+        }
+
+        cache = new SimpleCache(
+            new File(context.getCacheDir(), CACHE_DIRECTORY),
+            new LeastRecentlyUsedCacheEvictor(maxBytes),
+            new StandaloneDatabaseProvider(context)
+        );
+        diskExecutor = MoreExecutors.listeningDecorator(Executors.newSingleThreadExecutor());
+    }
+
+    public static synchronized MediaCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new MediaCache(
+                context.getApplicationContext(),
+                AudioPlayerConfig.load(context)
+            );
+        }
+
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public MediaSource.Factory createMediaSourceFactory() {
+        DefaultDataSource.Factory upstreamFactory = new DefaultDataSource.Factory(context);
+        // Small local files are served from memory whether or not this cache is enabled
+        DefaultMediaSourceFactory uncachedFactory = new DefaultMediaSourceFactory(
+            AssetByteCache.getInstance(context).createDataSourceFactory(upstreamFactory)
+        );
+
+        if (!enabled) {
+            return uncachedFactory;
+        }
+
+        CacheDataSource.Factory cacheDataSourceFactory = new CacheDataSource.Factory()
+            .setCache(cache)
+            .setUpstreamDataSourceFactory(upstreamFactory)
+            .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR)
+            .setCacheWriteDataSinkFactory(() -> new KnownLengthCacheDataSink(cache))
+            .setEventListener(
+                new CacheDataSource.EventListener() {
+                    @Override
+                    public void onCachedBytesRead(long cacheSizeBytes, long cachedBytesRead) {
+                        MediaCache.this.cachedBytesRead.addAndGet(cachedBytesRead);
+                    }
+
+                    @Override
+                    public void onCacheIgnored(int reason) {
+                        cacheIgnoredCount.incrementAndGet();
+                    }
+                }
+            );
+
+        return new CacheAwareMediaSourceFactory(
+            new DefaultMediaSourceFactory(cacheDataSourceFactory),
+            uncachedFactory
+        );
+    }
+
+    public ListenableFuture<Bundle> getStats() {
+        if (!enabled) {
+            return Futures.immediateFuture(buildStats(0, 0));
+        }
+
+        return diskExecutor.submit(() -> buildStats(cache.getCacheSpace(), cache.getKeys().size()));
+    }
+
+    public ListenableFuture<Bundle> clear() {
+        AssetByteCache.getInstance(context).clear();
+
+        if (!enabled) {
+            return Futures.immediateFuture(new Bundle());
+        }
+
+        return diskExecutor.submit(() -> {
+            for (String key : new ArrayList<>(cache.getKeys())) {
+                cache.removeResource(key);
+            }
+
+            Log.i(TAG, "Media cache cleared");
+
+            return new Bundle();
+        });
+    }
+
+    private Bundle buildStats(long usedBytes, int entryCount) {
+        Bundle stats = new Bundle();
+        stats.putBoolean("enabled", enabled);
+        stats.putLong("maxBytes", enabled ? maxBytes : 0);
+        stats.putLong("usedBytes", usedBytes);
+        stats.putInt("entries", entryCount);
+        stats.putLong("bytesReadFromCache", cachedBytesRead.get());
+        stats.putLong("cacheBypassCount", cacheIgnoredCount.get());
+        stats.putBundle("assets", AssetByteCache.getInstance(context).getStats());
+
+        return stats;
+    }
+
+    private static boolean shouldUseCache(MediaItem mediaItem) {
+        if (mediaItem.localConfiguration == null) {
+            return false;
+        }
+
+        String scheme = mediaItem.localConfiguration.uri.getScheme();
+
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            return false;
+        }
+
+        Bundle extras = mediaItem.requestMetadata.extras;
+
+        return extras == null || extras.getBoolean(EXTRA_USE_CACHE, true);
+    }
+
+    /**
+     * Only writes responses of known length to the cache. One without a length is most likely
+     * a live stream, which would fill the cache without end and be replayed stale.
+     *
+     * Not {@link CacheDataSource#FLAG_IGNORE_CACHE_FOR_UNSET_LENGTH_REQUESTS}: that looks at the
+     * request, and progressive requests never set a length, so nothing would be cached.
+     */
+    private static class KnownLengthCacheDataSink implements DataSink {
+
+        private final CacheDataSink sink;
+
+        KnownLengthCacheDataSink(Cache cache) {
+            sink = new CacheDataSink(cache, CacheDataSink.DEFAULT_FRAGMENT_SIZE);
+        }
+
+        @Override
+        public void open(DataSpec dataSpec) throws IOException {
+            // By now the length is the response's, if it had one
+            sink.open(
+                dataSpec
+                    .buildUpon()
+                    .setFlags(dataSpec.flags | DataSpec.FLAG_DONT_CACHE_IF_LENGTH_UNKNOWN)
+                    .build()
+            );
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            sink.write(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            sink.close();
+        }
+    }
+
+    /**
+     * Sends media items through the cached or uncached factory based on {@link #shouldUseCache}.
+     */
+    private static class CacheAwareMediaSourceFactory implements MediaSource.Factory {
+
+        private final MediaSource.Factory cachedFactory;
+        private final MediaSource.Factory uncachedFactory;
+
+        CacheAwareMediaSourceFactory(
+            MediaSource.Factory cachedFactory,
+            MediaSource.Factory uncachedFactory
+        ) {
+            this.cachedFactory = cachedFactory;
+            this.uncachedFactory = uncachedFactory;
+        }
+
+        @Override
+        public MediaSource.Factory setDrmSessionManagerProvider(
+            DrmSessionManagerProvider drmSessionManagerProvider
+        ) {
+            cachedFactory.setDrmSessionManagerProvider(drmSessionManagerProvider);
+            uncachedFactory.setDrmSessionManagerProvider(drmSessionManagerProvider);
+
+            return this;
+        }
+
+        @Override
+        public MediaSource.Factory setLoadErrorHandlingPolicy(
+            LoadErrorHandlingPolicy loadErrorHandlingPolicy
+        ) {
+            cachedFactory.setLoadErrorHandlingPolicy(loadErrorHandlingPolicy);
+            uncachedFactory.setLoadErrorHandlingPolicy(loadErrorHandlingPolicy);
+
+            return this;
+        }
+
+        @Override
+        @C.ContentType
+        public int[] getSupportedTypes() {
+            return uncachedFactory.getSupportedTypes();
+        }
+
+        @Override
+        public MediaSource createMediaSource(MediaItem mediaItem) {
+            return (shouldUseCache(mediaItem) ? cachedFactory : uncachedFactory).createMediaSource(
+                mediaItem
+            );
+        }
+    }
+}
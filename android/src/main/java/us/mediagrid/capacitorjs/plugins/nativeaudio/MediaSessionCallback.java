@@ -9,11 +9,20 @@ import androidx.media3.session.SessionCommands;
 import androidx.media3.session.SessionResult;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.function.Supplier;
 
 public class MediaSessionCallback implements MediaSession.Callback {
 
     public static final String SET_AUDIO_SOURCES = "SetAudioSources";
     public static final String CREATE_PLAYER = "CreatePlayer";
+    public static final String GET_PLAYER_POOL_STATS = "GetPlayerPoolStats";
+    public static final String PRELOAD = "Preload";
+    public static final String GET_PRELOAD_STATE = "GetPreloadState";
+    public static final String GET_CACHE_STATS = "GetCacheStats";
+    public static final String CLEAR_CACHE = "ClearCache";
+    public static final String PREWARM = "Prewarm";
 
     private AudioPlayerService audioService;
 
@@ -31,6 +40,12 @@ public class MediaSessionCallback implements MediaSession.Callback {
             MediaSession.ConnectionResult.DEFAULT_SESSION_COMMANDS.buildUpon()
                 .add(new SessionCommand(SET_AUDIO_SOURCES, new Bundle()))
                 .add(new SessionCommand(CREATE_PLAYER, new Bundle()))
+                .add(new SessionCommand(GET_PLAYER_POOL_STATS, new Bundle()))
+                .add(new SessionCommand(PRELOAD, new Bundle()))
+                .add(new SessionCommand(GET_PRELOAD_STATE, new Bundle()))
+                .add(new SessionCommand(GET_CACHE_STATS, new Bundle()))
+                .add(new SessionCommand(CLEAR_CACHE, new Bundle()))
+                .add(new SessionCommand(PREWARM, new Bundle()))
                 .build();
 
         return new MediaSession.ConnectionResult.AcceptedResultBuilder(session)
@@ -47,17 +62,89 @@ public class MediaSessionCallback implements MediaSession.Callback {
     ) {
         if (customCommand.customAction.equals(SET_AUDIO_SOURCES)) {
             Bundle audioSouresBundle = new Bundle();
-            audioSouresBundle.putBinder(
-                "audioSources",
-                customCommand.customExtras.getBinder("audioSources")
+            AudioSources audioSources = (AudioSources) customCommand.customExtras.getBinder(
+                "audioSources"
             );
+            audioSouresBundle.putBinder("audioSources", audioSources);
 
             session.setSessionExtras(audioSouresBundle);
+
+            AudioSource notificationSource = audioSources.forNotification();
+            audioService.setNotificationMetrics(
+                notificationSource != null ? notificationSource.getPlaybackMetrics() : null
+            );
         } else if (customCommand.customAction.equals(CREATE_PLAYER)) {
             AudioSource source = (AudioSource) customCommand.customExtras.getBinder("audioSource");
-            source.initialize(audioService);
+
+            return onAudioThread(() -> {
+                source.initialize(audioService.getPlayerPool());
+
+                return Futures.immediateFuture(new Bundle());
+            });
+        } else if (customCommand.customAction.equals(GET_PLAYER_POOL_STATS)) {
+            return onAudioThread(() -> {
+                Bundle stats = audioService.getPlayerPool().getStats();
+                stats.putBundle("playbackThreads", audioService.getPlaybackThreads().getStats());
+
+                return Futures.immediateFuture(stats);
+            });
+        } else if (customCommand.customAction.equals(PRELOAD)) {
+            AudioSources sources = (AudioSources) customCommand.customExtras.getBinder(
+                "audioSources"
+            );
+            String[] audioIds = customCommand.customExtras.getStringArray("audioIds");
+            int priority = customCommand.customExtras.getInt("priority");
+
+            return onAudioThread(() -> {
+                for (String audioId : audioIds) {
+                    audioService.getAudioPreloader().preload(sources.get(audioId), priority);
+                }
+
+                return Futures.immediateFuture(new Bundle());
+            });
+        } else if (customCommand.customAction.equals(GET_PRELOAD_STATE)) {
+            String[] audioIds = customCommand.customExtras.getStringArray("audioIds");
+
+            return onAudioThread(() ->
+                Futures.immediateFuture(audioService.getAudioPreloader().getStates(audioIds))
+            );
+        } else if (customCommand.customAction.equals(GET_CACHE_STATS)) {
+            return toSessionResult(audioService.getMediaCache().getStats());
+        } else if (customCommand.customAction.equals(CLEAR_CACHE)) {
+            return toSessionResult(audioService.getMediaCache().clear());
+        } else if (customCommand.customAction.equals(PREWARM)) {
+            return onAudioThread(() -> audioService.getAudioPrewarmer().prewarm());
         }
 
         return Futures.immediateFuture(new SessionResult(SessionResult.RESULT_SUCCESS));
     }
+
+    /**
+     * Runs a command on the thread of the non-notification players, see {@link AudioThread}.
+     */
+    private ListenableFuture<SessionResult> onAudioThread(
+        Supplier<ListenableFuture<Bundle>> command
+    ) {
+        SettableFuture<Bundle> result = SettableFuture.create();
+
+        audioService.runOnAudioThread(() -> {
+            try {
+                result.setFuture(command.get());
+            } catch (Exception ex) {
+                result.setException(ex);
+            }
+        });
+
+        return toSessionResult(result);
+    }
+
+    private static ListenableFuture<SessionResult> toSessionResult(
+        ListenableFuture<Bundle> future
+    ) {
+        return Futures.transform(
+            future,
+            extras -> new SessionResult(SessionResult.RESULT_SUCCESS, extras),
+            MoreExecutors.directExecutor()
+        );
+    }
 }
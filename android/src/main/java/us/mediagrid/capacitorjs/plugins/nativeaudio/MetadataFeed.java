@@ -0,0 +1,388 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.util.Log;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.plugin.util.HttpRequestHandler;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One metadata update URL and every {@link AudioMetadata} subscribed to it.
+ *
+ * Requests are conditional (`ETag`/`Last-Modified`) and an unchanged response is not
+ * fanned out to the subscribers. Besides polling, the URL can be a Server-Sent Events stream
+ * or a long-poll endpoint, in which case updates are applied as soon as they arrive.
+ */
+public class MetadataFeed {
+
+    private static final String TAG = "MetadataFeed";
+    private static final Pattern MAX_AGE_PATTERN = Pattern.compile("max-age=(\\d+)");
+
+    // Without it a server that never accepts the connection holds a poller thread for minutes
+    private static final int CONNECT_TIMEOUT_MS = 10 * 1000;
+    private static final int POLL_READ_TIMEOUT_MS = 30 * 1000;
+    // Servers are expected to send a comment line as a heartbeat well within this
+    private static final int STREAM_READ_TIMEOUT_MS = 5 * 60 * 1000;
+    private static final int LONG_POLL_WAIT_SECONDS = 60;
+    private static final long DEFAULT_STREAM_RETRY_MS = 3000;
+
+    public enum Mode {
+        POLL,
+        SSE,
+        LONG_POLL;
+
+        public static Mode fromString(String mode) {
+            if ("sse".equals(mode)) {
+                return SSE;
+            }
+
+            if ("longPoll".equals(mode)) {
+                return LONG_POLL;
+            }
+
+            return POLL;
+        }
+    }
+
+    public enum Result {
+        UPDATED,
+        UNCHANGED,
+        FAILED,
+        // The server doesn't stream or hold the request, polling has to be used instead
+        UNSUPPORTED
+    }
+
+    public final String url;
+    public final MetadataUpdateSchedule schedule;
+    // The mode the subscribers asked for, `mode` is polling while waiting for a stream slot
+    public final Mode requestedMode;
+
+    final Set<AudioMetadata> subscribers = new CopyOnWriteArraySet<>();
+    ScheduledFuture<?> nextUpdate = null;
+    volatile Mode mode;
+    volatile Thread streamThread = null;
+
+    private volatile HttpURLConnection streamConnection = null;
+    private volatile String lastEventId = null;
+    private volatile long streamRetryMs = DEFAULT_STREAM_RETRY_MS;
+
+    private volatile String etag = null;
+    private volatile String lastModified = null;
+    private String lastResponse = null;
+    private JSObject lastMetadata = null;
+
+    public MetadataFeed(String url, Mode mode, MetadataUpdateSchedule schedule) {
+        this.url = url;
+        this.mode = mode;
+        this.requestedMode = mode;
+        this.schedule = schedule;
+    }
+
+    public boolean isStreaming() {
+        return mode != Mode.POLL;
+    }
+
+    public long getStreamRetryMs() {
+        return streamRetryMs;
+    }
+
+    public synchronized JSObject getLastMetadata() {
+        return lastMetadata;
+    }
+
+    /**
+     * Makes the request, and if the metadata changed, hands it to every subscriber.
+     */
+    public Result update(MetadataPoller.Stats stats) {
+        return makeUpdateRequest(stats, false);
+    }
+
+    /**
+     * Makes a request the server holds until the metadata changes or its wait is over.
+     * A server answering right away with unchanged metadata doesn't support long polling.
+     */
+    public Result longPoll(MetadataPoller.Stats stats) {
+        long startMs = System.currentTimeMillis();
+        Result result = makeUpdateRequest(stats, true);
+
+        if (result == Result.UNCHANGED && System.currentTimeMillis() - startMs < 1000) {
+            return Result.UNSUPPORTED;
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads the Server-Sent Events stream until it ends or {@link #stopStream} is called,
+     * applying each event as it arrives. Resumes from the last event ID when reconnecting.
+     */
+    public Result stream(MetadataPoller.Stats stats) {
+        Log.i(TAG, "Connecting to metadata stream " + url);
+        stats.requestCount.incrementAndGet();
+        stats.streamConnectCount.incrementAndGet();
+
+        HttpURLConnection urlConnection = null;
+
+        try {
+            urlConnection = (HttpURLConnection) new URL(url).openConnection();
+            urlConnection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            urlConnection.setReadTimeout(STREAM_READ_TIMEOUT_MS);
+            urlConnection.setRequestProperty("Accept", "text/event-stream");
+            urlConnection.setRequestProperty("Cache-Control", "no-cache");
+
+            if (lastEventId != null) {
+                urlConnection.setRequestProperty("Last-Event-ID", lastEventId);
+            }
+
+            streamConnection = urlConnection;
+
+            // Stopped before the connection could be aborted
+            if (streamThread != Thread.currentThread()) {
+                return Result.FAILED;
+            }
+
+            int responseCode = urlConnection.getResponseCode();
+            String contentType = urlConnection.getContentType();
+
+            if (responseCode >= 400) {
+                Log.e(
+                    TAG,
+                    String.format("The metadata stream returned a status of %s", responseCode)
+                );
+                stats.failureCount.incrementAndGet();
+                schedule.recordFailure();
+
+                return Result.FAILED;
+            }
+
+            if (contentType == null || !contentType.startsWith("text/event-stream")) {
+                Log.w(TAG, String.format("%s is not an event stream (%s)", url, contentType));
+
+                return Result.UNSUPPORTED;
+            }
+
+            schedule.recordSuccess(0, 0);
+
+            ServerSentEventParser parser = new ServerSentEventParser(
+                lastEventId,
+                new ServerSentEventParser.Listener() {
+                    @Override
+                    public void onEvent(ServerSentEventParser.Event event) {
+                        lastEventId = event.id;
+                        stats.streamEventCount.incrementAndGet();
+
+                        if (!event.type.equals("message") && !event.type.equals("metadata")) {
+                            return;
+                        }
+
+                        try {
+                            applyResponse(event.data, parseResponse(event.data));
+                        } catch (Exception ex) {
+                            Log.e(TAG, "Could not parse the metadata stream event", ex);
+                        }
+                    }
+
+                    @Override
+                    public void onRetry(long retryMs) {
+                        streamRetryMs = retryMs;
+                    }
+                }
+            );
+
+            try (
+                BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(urlConnection.getInputStream(), StandardCharsets.UTF_8)
+                )
+            ) {
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    parser.parseLine(line);
+                }
+            }
+
+            Log.i(TAG, "The metadata stream was closed by the server");
+
+            return Result.UNCHANGED;
+        } catch (Exception ex) {
+            if (streamThread == Thread.currentThread()) {
+                Log.e(TAG, "The metadata stream failed", ex);
+                stats.failureCount.incrementAndGet();
+                schedule.recordFailure();
+            }
+
+            return Result.FAILED;
+        } finally {
+            streamConnection = null;
+
+            // A stream connection can't be reused, don't leave it open
+            if (urlConnection != null) {
+                urlConnection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Stops the stream thread, aborting a connection blocked reading.
+     */
+    public void stopStream() {
+        Thread thread = streamThread;
+        streamThread = null;
+
+        if (thread != null) {
+            thread.interrupt();
+        }
+
+        HttpURLConnection connection = streamConnection;
+
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    public static JSObject parseResponse(String response) throws Exception {
+        return new JSObject(response);
+    }
+
+    /**
+     * Hands the metadata to every subscriber if it changed. Synchronized as a manual refresh
+     * can overlap with a scheduled update or the stream.
+     */
+    private synchronized Result applyResponse(String response, JSObject json) {
+        if (response.equals(lastResponse)) {
+            Log.i(TAG, "Metadata is unchanged");
+
+            return Result.UNCHANGED;
+        }
+
+        Log.i(TAG, json.toString());
+
+        lastResponse = response;
+        lastMetadata = json;
+
+        for (AudioMetadata subscriber : subscribers) {
+            subscriber.applyUpdate(json);
+        }
+
+        return Result.UPDATED;
+    }
+
+    private Result makeUpdateRequest(MetadataPoller.Stats stats, boolean longPoll) {
+        Log.i(TAG, "Getting metadata from URL " + url);
+        stats.requestCount.incrementAndGet();
+
+        try {
+            // The connection isn't disconnected so it can go back to the keep-alive pool
+            HttpURLConnection urlConnection = (HttpURLConnection) new URL(url).openConnection();
+            urlConnection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            urlConnection.setRequestProperty("Accept", "application/json");
+
+            if (longPoll) {
+                urlConnection.setReadTimeout((LONG_POLL_WAIT_SECONDS + 30) * 1000);
+                urlConnection.setRequestProperty("Prefer", "wait=" + LONG_POLL_WAIT_SECONDS);
+                streamConnection = urlConnection;
+
+                if (streamThread != Thread.currentThread()) {
+                    return Result.FAILED;
+                }
+            } else {
+                urlConnection.setReadTimeout(POLL_READ_TIMEOUT_MS);
+            }
+
+            if (etag != null) {
+                urlConnection.setRequestProperty("If-None-Match", etag);
+            }
+
+            if (lastModified != null) {
+                urlConnection.setRequestProperty("If-Modified-Since", lastModified);
+            }
+
+            int responseCode = urlConnection.getResponseCode();
+            long serverMaxAgeMs = parseMaxAgeMs(urlConnection.getHeaderField("Cache-Control"));
+
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                Log.i(TAG, "Metadata has not been modified");
+                stats.notModifiedCount.incrementAndGet();
+                schedule.recordSuccess(serverMaxAgeMs, 0);
+
+                return Result.UNCHANGED;
+            }
+
+            InputStream errorStream = urlConnection.getErrorStream();
+
+            if (errorStream != null || responseCode >= 400) {
+                Log.e(
+                    TAG,
+                    String.format(
+                        "The metadata update server returned a status of %s with the message %s",
+                        responseCode,
+                        errorStream == null
+                            ? ""
+                            : HttpRequestHandler.readStreamAsString(errorStream)
+                    )
+                );
+                stats.failureCount.incrementAndGet();
+                schedule.recordFailure();
+
+                return Result.FAILED;
+            }
+
+            String response = HttpRequestHandler.readStreamAsString(urlConnection.getInputStream());
+            JSObject json = parseResponse(response);
+
+            // Optional hint from the server as epoch seconds
+            schedule.recordSuccess(serverMaxAgeMs, json.optLong("next_change_at", 0) * 1000L);
+
+            Result result = applyResponse(response, json);
+
+            // Only now, a response that failed to parse must not turn into a 304 next time
+            etag = urlConnection.getHeaderField("ETag");
+            lastModified = urlConnection.getHeaderField("Last-Modified");
+
+            if (result == Result.UNCHANGED) {
+                stats.notModifiedCount.incrementAndGet();
+            }
+
+            return result;
+        } catch (Exception ex) {
+            if (!longPoll || streamThread == Thread.currentThread()) {
+                Log.e(TAG, "An error occurred trying to get updated metadata", ex);
+                stats.failureCount.incrementAndGet();
+                schedule.recordFailure();
+            }
+
+            return Result.FAILED;
+        } finally {
+            if (longPoll) {
+                streamConnection = null;
+            }
+        }
+    }
+
+    private static long parseMaxAgeMs(String cacheControl) {
+        if (cacheControl == null) {
+            return 0;
+        }
+
+        Matcher matcher = MAX_AGE_PATTERN.matcher(cacheControl);
+
+        if (!matcher.find()) {
+            return 0;
+        }
+
+        try {
+            return Long.parseLong(matcher.group(1)) * 1000L;
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.util.Log;
+import com.getcapacitor.JSObject;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The one scheduler for every metadata update URL.
+ *
+ * Audio sources polling the same URL share one {@link MetadataFeed}, so there is a single
+ * request per interval per URL and its result is fanned out to all of them. Requests run on
+ * a small, bounded thread pool and reuse keep-alive connections.
+ *
+ * Streaming feeds (Server-Sent Events or long-poll) each hold a connection open on a thread
+ * of a second pool, reconnect on failure and fall back to polling if the server doesn't
+ * stream. At most `metadataMaxStreams` stream at once, further feeds are polled until a
+ * stream ends and they can take its place.
+ */
+public class MetadataPoller {
+
+    private static final String TAG = "MetadataPoller";
+    // Consecutive failed stream connections before falling back to polling
+    private static final int MAX_STREAM_FAILURES = 5;
+    private static final long STREAM_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    public static class Stats {
+
+        final AtomicLong requestCount = new AtomicLong();
+        final AtomicLong notModifiedCount = new AtomicLong();
+        final AtomicLong failureCount = new AtomicLong();
+        final AtomicLong streamConnectCount = new AtomicLong();
+        final AtomicLong streamEventCount = new AtomicLong();
+        final AtomicLong streamFallbackCount = new AtomicLong();
+    }
+
+    private final AudioPlayerConfig config;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ThreadPoolExecutor streamExecutor;
+    private final int maxStreams;
+    private final Stats stats = new Stats();
+
+    // Guarded by this
+    private final HashMap<String, MetadataFeed> feeds = new HashMap<>();
+    // Streaming feeds being polled until there's a free stream slot, oldest first
+    private final ArrayDeque<MetadataFeed> queuedStreams = new ArrayDeque<>();
+    private int activeStreams = 0;
+    private boolean inBackground = false;
+
+    public MetadataPoller(AudioPlayerConfig config) {
+        this(config, new ScheduledThreadPoolExecutor(config.getMetadataPollerThreads()));
+    }
+
+    /**
+     * @param executor Runs the requests and schedules the next ones, e.g. on a virtual clock
+     *     in tests
+     */
+    MetadataPoller(AudioPlayerConfig config, ScheduledThreadPoolExecutor executor) {
+        this.config = config;
+        this.executor = executor;
+        this.executor.setRemoveOnCancelPolicy(true);
+
+        // Never more tasks than threads, startStream() counts the streams itself
+        maxStreams = config.getMetadataMaxStreams();
+        streamExecutor = new ThreadPoolExecutor(
+            Math.max(1, maxStreams),
+            Math.max(1, maxStreams),
+            STREAM_THREAD_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "MetadataStream");
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        );
+        streamExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public synchronized void subscribe(AudioMetadata subscriber) {
+        MetadataFeed feed = feeds.get(subscriber.updateUrl);
+
+        if (feed == null) {
+            feed = new MetadataFeed(
+                subscriber.updateUrl,
+                subscriber.updateMode,
+                new MetadataUpdateSchedule(
+                    subscriber.updateInterval * 1000L,
+                    subscriber.backgroundUpdateInterval * 1000L,
+                    config.getMetadataUpdateMaxBackoffMs(),
+                    config.getMetadataUpdateJitterRatio()
+                )
+            );
+            feed.schedule.setInBackground(inBackground);
+            feeds.put(feed.url, feed);
+        } else {
+            // The shortest interval of all the subscribers wins
+            feed.schedule.useShortestIntervals(
+                subscriber.updateInterval * 1000L,
+                subscriber.backgroundUpdateInterval * 1000L
+            );
+        }
+
+        boolean isFirstSubscriber = feed.subscribers.isEmpty();
+
+        if (!feed.subscribers.add(subscriber)) {
+            return;
+        }
+
+        Log.i(TAG, String.format("Subscribed to %s", feed.url));
+
+        if (isFirstSubscriber) {
+            if (feed.isStreaming()) {
+                startStream(feed);
+            } else {
+                scheduleUpdate(feed, 0);
+            }
+        } else if (feed.getLastMetadata() != null) {
+            // Catch the new subscriber up without another request
+            JSObject lastMetadata = feed.getLastMetadata();
+            executor.execute(() -> subscriber.applyUpdate(lastMetadata));
+        }
+    }
+
+    public synchronized void unsubscribe(AudioMetadata subscriber) {
+        MetadataFeed feed = feeds.get(subscriber.updateUrl);
+
+        if (feed == null || !feed.subscribers.remove(subscriber)) {
+            return;
+        }
+
+        Log.i(TAG, String.format("Unsubscribed from %s", feed.url));
+
+        if (feed.subscribers.isEmpty()) {
+            if (feed.nextUpdate != null) {
+                feed.nextUpdate.cancel(false);
+            }
+
+            feed.stopStream();
+            queuedStreams.remove(feed);
+            feeds.remove(feed.url);
+        }
+    }
+
+    /**
+     * Update right away. For a URL nobody is subscribed to, only the given subscriber is updated.
+     */
+    public synchronized void refresh(AudioMetadata subscriber) {
+        MetadataFeed feed = feeds.get(subscriber.updateUrl);
+
+        if (feed != null) {
+            scheduleUpdate(feed, 0);
+
+            return;
+        }
+
+        MetadataFeed oneOffFeed = new MetadataFeed(
+            subscriber.updateUrl,
+            MetadataFeed.Mode.POLL,
+            new MetadataUpdateSchedule(0, 0, 0, 0)
+        );
+        oneOffFeed.subscribers.add(subscriber);
+
+        submit(() -> oneOffFeed.update(stats));
+    }
+
+    /**
+     * Switches every feed between its foreground and background interval. Coming back to the
+     * foreground updates right away so the notification isn't showing stale metadata.
+     */
+    public synchronized void setInBackground(boolean inBackground) {
+        boolean cameToForeground = this.inBackground && !inBackground;
+        this.inBackground = inBackground;
+
+        for (MetadataFeed feed : feeds.values()) {
+            feed.schedule.setInBackground(inBackground);
+
+            if (cameToForeground && !feed.isStreaming()) {
+                scheduleUpdate(feed, 0);
+            }
+        }
+    }
+
+    public synchronized JSObject getStats() {
+        int subscriberCount = 0;
+        int streamCount = 0;
+
+        for (MetadataFeed feed : feeds.values()) {
+            subscriberCount += feed.subscribers.size();
+
+            if (feed.isStreaming()) {
+                streamCount++;
+            }
+        }
+
+        return new JSObject()
+            .put("feeds", feeds.size())
+            .put("subscribers", subscriberCount)
+            .put("streams", streamCount)
+            .put("requests", stats.requestCount.get())
+            .put("notModified", stats.notModifiedCount.get())
+            .put("failures", stats.failureCount.get())
+            .put("streamConnects", stats.streamConnectCount.get())
+            .put("streamEvents", stats.streamEventCount.get())
+            .put("streamFallbacks", stats.streamFallbackCount.get())
+            .put("activeStreams", activeStreams)
+            .put("queuedStreams", queuedStreams.size())
+            .put("threads", executor.getPoolSize())
+            .put("activeThreads", executor.getActiveCount())
+            .put("queued", executor.getQueue().size())
+            .put("completedTasks", executor.getCompletedTaskCount());
+    }
+
+    public synchronized void shutdown() {
+        executor.shutdownNow();
+        streamExecutor.shutdownNow();
+        queuedStreams.clear();
+
+        for (MetadataFeed feed : feeds.values()) {
+            feed.stopStream();
+        }
+    }
+
+    private void scheduleUpdate(MetadataFeed feed, long delayMs) {
+        if (executor.isShutdown()) {
+            return;
+        }
+
+        if (feed.nextUpdate != null) {
+            feed.nextUpdate.cancel(false);
+        }
+
+        feed.nextUpdate = executor.schedule(() -> runUpdate(feed), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void runUpdate(MetadataFeed feed) {
+        try {
+            feed.update(stats);
+        } catch (Exception ex) {
+            Log.e(TAG, "There was an error running the metadata update", ex);
+        }
+
+        synchronized (this) {
+            // Everybody unsubscribed while the request was running, or it was a manual
+            // refresh of a stream
+            if (feeds.get(feed.url) != feed || feed.isStreaming()) {
+                return;
+            }
+
+            scheduleUpdate(feed, feed.schedule.getNextDelayMs(System.currentTimeMillis()));
+        }
+    }
+
+    private void startStream(MetadataFeed feed) {
+        if (executor.isShutdown()) {
+            return;
+        }
+
+        if (activeStreams >= maxStreams) {
+            Log.i(TAG, String.format("Polling %s until a stream slot is free", feed.url));
+
+            feed.mode = MetadataFeed.Mode.POLL;
+            queuedStreams.add(feed);
+            scheduleUpdate(feed, 0);
+
+            return;
+        }
+
+        activeStreams++;
+        feed.mode = feed.requestedMode;
+
+        if (feed.nextUpdate != null) {
+            feed.nextUpdate.cancel(false);
+        }
+
+        streamExecutor.execute(() -> {
+            try {
+                runStream(feed);
+            } finally {
+                onStreamEnded();
+            }
+        });
+    }
+
+    /**
+     * Frees the stream slot, handing it to the longest waiting feed that is still subscribed.
+     */
+    private synchronized void onStreamEnded() {
+        activeStreams--;
+
+        MetadataFeed next = queuedStreams.poll();
+
+        if (next != null) {
+            startStream(next);
+        }
+    }
+
+    private void runStream(MetadataFeed feed) {
+        Thread thread = Thread.currentThread();
+
+        synchronized (this) {
+            // Unsubscribed before the pool got to it
+            if (feeds.get(feed.url) != feed || executor.isShutdown()) {
+                return;
+            }
+
+            feed.streamThread = thread;
+        }
+
+        while (feed.streamThread == thread) {
+            MetadataFeed.Result result = feed.mode == MetadataFeed.Mode.SSE
+                ? feed.stream(stats)
+                : feed.longPoll(stats);
+
+            if (feed.streamThread != thread) {
+                return;
+            }
+
+            if (
+                result == MetadataFeed.Result.UNSUPPORTED ||
+                feed.schedule.getConsecutiveFailures() >= MAX_STREAM_FAILURES
+            ) {
+                fallBackToPolling(feed, thread);
+
+                return;
+            }
+
+            long delayMs = 0;
+
+            if (result == MetadataFeed.Result.FAILED || feed.mode == MetadataFeed.Mode.SSE) {
+                delayMs = feed.schedule.getReconnectDelayMs(feed.getStreamRetryMs());
+            }
+
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    private synchronized void fallBackToPolling(MetadataFeed feed, Thread thread) {
+        if (feed.streamThread != thread) {
+            return;
+        }
+
+        Log.w(TAG, String.format("Falling back to polling %s", feed.url));
+        stats.streamFallbackCount.incrementAndGet();
+
+        feed.streamThread = null;
+        feed.mode = MetadataFeed.Mode.POLL;
+        scheduleUpdate(feed, 0);
+    }
+
+    private void submit(Runnable task) {
+        if (!executor.isShutdown()) {
+            executor.execute(task);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import androidx.media3.common.MediaMetadata;
+import com.getcapacitor.JSObject;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The last stage of a metadata update. Bursts of updates within the debounce window are
+ * coalesced into the latest one, and updates identical to what the player already has are
+ * dropped, so the media session and notification are only rebuilt when something changed.
+ *
+ * {@link #submit} can be called from any thread, publishing happens on the player's
+ * application thread.
+ */
+public class MetadataPublisher {
+
+    private final Handler handler;
+    private final long debounceWindowMs;
+    private final Function<MediaMetadata, Boolean> publishAction;
+    private final MainThreadSliceStats sliceStats = new MainThreadSliceStats("Metadata update");
+    private final Runnable flushRunner = this::flush;
+
+    // Only accessed on the publishing thread
+    private MediaMetadata pending = null;
+    private long lastPublishedAtMs = 0;
+
+    // Written on the publishing thread, read by getStats() on any thread
+    private final AtomicInteger publishedCount = new AtomicInteger();
+    private final AtomicInteger suppressedCount = new AtomicInteger();
+    private final AtomicInteger coalescedCount = new AtomicInteger();
+
+    /**
+     * @param looper The player's application looper
+     * @param publishAction Publishes the metadata if it differs from the player's current
+     *     metadata. Returns `false` if it was the same and nothing was published.
+     */
+    public MetadataPublisher(
+        Looper looper,
+        long debounceWindowMs,
+        Function<MediaMetadata, Boolean> publishAction
+    ) {
+        this.handler = new Handler(looper);
+        this.debounceWindowMs = debounceWindowMs;
+        this.publishAction = publishAction;
+    }
+
+    public void submit(MediaMetadata mediaMetadata) {
+        handler.post(() -> {
+            if (pending != null) {
+                coalescedCount.incrementAndGet();
+                pending = mediaMetadata;
+
+                return;
+            }
+
+            pending = mediaMetadata;
+
+            long delayMs = Math.max(
+                0,
+                lastPublishedAtMs + debounceWindowMs - SystemClock.elapsedRealtime()
+            );
+
+            handler.postDelayed(flushRunner, delayMs);
+        });
+    }
+
+    public void cancel() {
+        handler.post(() -> {
+            handler.removeCallbacks(flushRunner);
+            pending = null;
+        });
+    }
+
+    public JSObject getStats() {
+        return new JSObject()
+            .put("published", publishedCount.get())
+            .put("suppressed", suppressedCount.get())
+            .put("coalesced", coalescedCount.get())
+            .put("mainThread", sliceStats.toJSObject());
+    }
+
+    private void flush() {
+        MediaMetadata mediaMetadata = pending;
+        pending = null;
+
+        if (mediaMetadata == null) {
+            return;
+        }
+
+        long startNanos = SystemClock.elapsedRealtimeNanos();
+        boolean published = publishAction.apply(mediaMetadata);
+        sliceStats.record(SystemClock.elapsedRealtimeNanos() - startNanos);
+
+        if (published) {
+            publishedCount.incrementAndGet();
+            lastPublishedAtMs = SystemClock.elapsedRealtime();
+        } else {
+            suppressedCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import java.util.Random;
+
+/**
+ * Decides when the next metadata update request should be made.
+ *
+ * - Uses a longer interval while the app is in the background
+ * - Backs off exponentially on failed requests
+ * - Never polls more often than the server's `Cache-Control: max-age`
+ * - Aligns to the server's "next change at" hint when there is one
+ * - Adds random jitter so clients don't hit the server in lockstep
+ */
+public class MetadataUpdateSchedule {
+
+    // Give the server a moment past its own "next change at" before asking for it
+    private static final long NEXT_CHANGE_GRACE_MS = 1000;
+    private static final long MIN_DELAY_MS = 1000;
+    private static final long MAX_ALIGNED_JITTER_MS = 3000;
+
+    private long foregroundIntervalMs;
+    private long backgroundIntervalMs;
+    private long maxBackoffMs;
+    private final double jitterRatio;
+    private final Random random;
+
+    private boolean inBackground = false;
+    private int consecutiveFailures = 0;
+    private long serverMaxAgeMs = 0;
+    private long nextChangeAtMs = 0;
+
+    public MetadataUpdateSchedule(
+        long foregroundIntervalMs,
+        long backgroundIntervalMs,
+        long maxBackoffMs,
+        double jitterRatio
+    ) {
+        this(foregroundIntervalMs, backgroundIntervalMs, maxBackoffMs, jitterRatio, new Random());
+    }
+
+    MetadataUpdateSchedule(
+        long foregroundIntervalMs,
+        long backgroundIntervalMs,
+        long maxBackoffMs,
+        double jitterRatio,
+        Random random
+    ) {
+        this.foregroundIntervalMs = foregroundIntervalMs;
+        this.backgroundIntervalMs = Math.max(foregroundIntervalMs, backgroundIntervalMs);
+        this.maxBackoffMs = Math.max(this.backgroundIntervalMs, maxBackoffMs);
+        this.jitterRatio = Math.max(0, Math.min(1, jitterRatio));
+        this.random = random;
+    }
+
+    public synchronized void setInBackground(boolean inBackground) {
+        this.inBackground = inBackground;
+    }
+
+    public synchronized boolean isInBackground() {
+        return inBackground;
+    }
+
+    /**
+     * Lowers the intervals to the given ones if they're shorter, for when several sources
+     * with different intervals share the same schedule.
+     */
+    public synchronized void useShortestIntervals(
+        long foregroundIntervalMs,
+        long backgroundIntervalMs
+    ) {
+        this.foregroundIntervalMs = Math.min(this.foregroundIntervalMs, foregroundIntervalMs);
+        this.backgroundIntervalMs = Math.max(
+            this.foregroundIntervalMs,
+            Math.min(this.backgroundIntervalMs, backgroundIntervalMs)
+        );
+    }
+
+    /**
+     * @param serverMaxAgeMs The response's `Cache-Control: max-age` in milliseconds, `0` if none
+     * @param nextChangeAtMs When the server expects the metadata to change next as epoch
+     *     milliseconds, `0` if unknown
+     */
+    public synchronized void recordSuccess(long serverMaxAgeMs, long nextChangeAtMs) {
+        this.consecutiveFailures = 0;
+        this.serverMaxAgeMs = serverMaxAgeMs;
+        this.nextChangeAtMs = nextChangeAtMs;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        nextChangeAtMs = 0;
+    }
+
+    /**
+     * @param nowMs The current time as epoch milliseconds
+     */
+    public synchronized long getNextDelayMs(long nowMs) {
+        long intervalMs = Math.max(
+            inBackground ? backgroundIntervalMs : foregroundIntervalMs,
+            serverMaxAgeMs
+        );
+
+        if (consecutiveFailures > 0) {
+            // Cap the shift so it can't overflow
+            long backoffMs = intervalMs << Math.min(consecutiveFailures, 16);
+
+            return withJitter(Math.min(maxBackoffMs, backoffMs));
+        }
+
+        if (nextChangeAtMs > nowMs) {
+            long untilChangeMs = nextChangeAtMs - nowMs + NEXT_CHANGE_GRACE_MS;
+
+            // Only ever add jitter here, asking before the change is a wasted request
+            return (
+                untilChangeMs +
+                (long) (random.nextDouble() *
+                    Math.min(MAX_ALIGNED_JITTER_MS, jitterRatio * untilChangeMs))
+            );
+        }
+
+        return withJitter(intervalMs);
+    }
+
+    /**
+     * The delay before reconnecting a metadata stream, backing off from the server's
+     * requested retry time while connecting keeps failing.
+     */
+    public synchronized long getReconnectDelayMs(long retryMs) {
+        if (consecutiveFailures == 0) {
+            return withJitter(retryMs);
+        }
+
+        long backoffMs = Math.max(MIN_DELAY_MS, retryMs) << Math.min(consecutiveFailures, 16);
+
+        return withJitter(Math.min(maxBackoffMs, backoffMs));
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    private long withJitter(long delayMs) {
+        double jitter = (random.nextDouble() * 2 - 1) * jitterRatio;
+
+        return Math.max(MIN_DELAY_MS, Math.round(delayMs * (1 + jitter)));
+    }
+}
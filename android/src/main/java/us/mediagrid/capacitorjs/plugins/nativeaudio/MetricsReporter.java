@@ -0,0 +1,73 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.PluginCall;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Drives the `onMetrics` callback, sending the {@link PlaybackMetrics} of every audio source
+ * at a fixed interval.
+ *
+ * Main thread only.
+ */
+public class MetricsReporter {
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable reportRunner = this::report;
+    private final AudioPlayerPlugin plugin;
+    private final Supplier<List<AudioSource>> audioSourcesSupplier;
+
+    private String callbackId = null;
+    private long intervalMs = 0;
+
+    public MetricsReporter(
+        AudioPlayerPlugin plugin,
+        Supplier<List<AudioSource>> audioSourcesSupplier
+    ) {
+        this.plugin = plugin;
+        this.audioSourcesSupplier = audioSourcesSupplier;
+    }
+
+    public void start(String callbackId, long intervalMs) {
+        stop();
+
+        this.callbackId = callbackId;
+        this.intervalMs = intervalMs;
+
+        handler.postDelayed(reportRunner, intervalMs);
+    }
+
+    public void stop() {
+        handler.removeCallbacks(reportRunner);
+        callbackId = null;
+    }
+
+    public static JSArray collect(List<AudioSource> audioSources) {
+        JSArray metrics = new JSArray();
+
+        for (AudioSource audioSource : audioSources) {
+            metrics.put(
+                audioSource.getPlaybackMetrics().toJSObject().put("audioId", audioSource.id)
+            );
+        }
+
+        return metrics;
+    }
+
+    private void report() {
+        PluginCall call = callbackId != null ? plugin.getBridge().getSavedCall(callbackId) : null;
+
+        if (call == null) {
+            callbackId = null;
+
+            return;
+        }
+
+        call.resolve(new JSObject().put("metrics", collect(audioSourcesSupplier.get())));
+        handler.postDelayed(reportRunner, intervalMs);
+    }
+}
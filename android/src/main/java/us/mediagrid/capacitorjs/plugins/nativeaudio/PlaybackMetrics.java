@@ -0,0 +1,197 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.os.SystemClock;
+import androidx.annotation.OptIn;
+import androidx.media3.common.PlaybackException;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.analytics.AnalyticsListener;
+import androidx.media3.exoplayer.source.LoadEventInfo;
+import androidx.media3.exoplayer.source.MediaLoadData;
+import com.getcapacitor.JSObject;
+import java.io.IOException;
+
+/**
+ * Quality of experience counters of one audio source, fed by the {@link AnalyticsListener} of
+ * whichever ExoPlayer currently plays it (a pooled player, or the media session's player for
+ * the notification source).
+ *
+ * Player callbacks arrive on the player's application thread, {@link #toJSObject} can be
+ * called from any thread.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class PlaybackMetrics implements AnalyticsListener {
+
+    private final long createdAtMs = SystemClock.elapsedRealtime();
+
+    private long createToReadyMs = -1;
+    private long prepareRequestedAtMs = -1;
+    private long prepareToReadyMs = -1;
+    // Wall clock, to compare with the playout start time of `onAudioPositionAdvancing`
+    private long playRequestedAtWallMs = -1;
+    private long playToFirstAudioMs = -1;
+
+    private boolean wasReady = false;
+    private long rebufferStartedAtMs = -1;
+    private int rebufferCount = 0;
+    private long rebufferDurationMs = 0;
+
+    private long bytesLoaded = 0;
+    private long bitrateEstimate = 0;
+    private int loadErrorCount = 0;
+
+    private String decoderName = null;
+    private long decoderInitMs = -1;
+    private int underrunCount = 0;
+    private int audioSinkErrorCount = 0;
+    private int playerErrorCount = 0;
+
+    /**
+     * Call when a new source is being prepared, e.g. on `changeAudioSource`.
+     */
+    public synchronized void onPrepareRequested() {
+        prepareRequestedAtMs = SystemClock.elapsedRealtime();
+        wasReady = false;
+    }
+
+    /**
+     * Call when the app asks the source to play.
+     */
+    public synchronized void onPlayRequested() {
+        playRequestedAtWallMs = System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void onPlaybackStateChanged(
+        EventTime eventTime,
+        @Player.State int state
+    ) {
+        long nowMs = SystemClock.elapsedRealtime();
+
+        if (state == Player.STATE_READY) {
+            if (createToReadyMs < 0) {
+                createToReadyMs = nowMs - createdAtMs;
+            }
+
+            if (prepareRequestedAtMs >= 0) {
+                prepareToReadyMs = nowMs - prepareRequestedAtMs;
+                prepareRequestedAtMs = -1;
+            }
+
+            if (rebufferStartedAtMs >= 0) {
+                rebufferDurationMs += nowMs - rebufferStartedAtMs;
+                rebufferStartedAtMs = -1;
+            }
+
+            wasReady = true;
+        } else if (state == Player.STATE_BUFFERING) {
+            // Only buffering after the source was ready is a stall, not the initial load
+            if (wasReady && rebufferStartedAtMs < 0) {
+                rebufferCount++;
+                rebufferStartedAtMs = nowMs;
+            }
+        } else {
+            if (rebufferStartedAtMs >= 0) {
+                rebufferDurationMs += nowMs - rebufferStartedAtMs;
+                rebufferStartedAtMs = -1;
+            }
+
+            wasReady = false;
+        }
+    }
+
+    @Override
+    public synchronized void onAudioPositionAdvancing(
+        EventTime eventTime,
+        long playoutStartSystemTimeMs
+    ) {
+        if (playRequestedAtWallMs >= 0) {
+            playToFirstAudioMs = Math.max(0, playoutStartSystemTimeMs - playRequestedAtWallMs);
+            playRequestedAtWallMs = -1;
+        }
+    }
+
+    @Override
+    public synchronized void onLoadCompleted(
+        EventTime eventTime,
+        LoadEventInfo loadEventInfo,
+        MediaLoadData mediaLoadData
+    ) {
+        bytesLoaded += loadEventInfo.bytesLoaded;
+    }
+
+    @Override
+    public synchronized void onLoadError(
+        EventTime eventTime,
+        LoadEventInfo loadEventInfo,
+        MediaLoadData mediaLoadData,
+        IOException error,
+        boolean wasCanceled
+    ) {
+        bytesLoaded += loadEventInfo.bytesLoaded;
+        loadErrorCount++;
+    }
+
+    @Override
+    public synchronized void onBandwidthEstimate(
+        EventTime eventTime,
+        int totalLoadTimeMs,
+        long totalBytesLoaded,
+        long bitrateEstimate
+    ) {
+        this.bitrateEstimate = bitrateEstimate;
+    }
+
+    @Override
+    public synchronized void onAudioDecoderInitialized(
+        EventTime eventTime,
+        String decoderName,
+        long initializedTimestampMs,
+        long initializationDurationMs
+    ) {
+        this.decoderName = decoderName;
+        this.decoderInitMs = initializationDurationMs;
+    }
+
+    @Override
+    public synchronized void onAudioUnderrun(
+        EventTime eventTime,
+        int bufferSize,
+        long bufferSizeMs,
+        long elapsedSinceLastFeedMs
+    ) {
+        underrunCount++;
+    }
+
+    @Override
+    public synchronized void onAudioSinkError(EventTime eventTime, Exception audioSinkError) {
+        audioSinkErrorCount++;
+    }
+
+    @Override
+    public synchronized void onPlayerError(EventTime eventTime, PlaybackException error) {
+        playerErrorCount++;
+    }
+
+    public synchronized JSObject toJSObject() {
+        // Include a stall that is still going on
+        long ongoingRebufferMs = rebufferStartedAtMs >= 0
+            ? SystemClock.elapsedRealtime() - rebufferStartedAtMs
+            : 0;
+
+        return new JSObject()
+            .put("createToReadyMs", createToReadyMs)
+            .put("prepareToReadyMs", prepareToReadyMs)
+            .put("playToFirstAudioMs", playToFirstAudioMs)
+            .put("rebufferCount", rebufferCount)
+            .put("rebufferDurationMs", rebufferDurationMs + ongoingRebufferMs)
+            .put("bytesLoaded", bytesLoaded)
+            .put("bitrateEstimate", bitrateEstimate)
+            .put("loadErrors", loadErrorCount)
+            .put("decoderName", decoderName)
+            .put("decoderInitMs", decoderInitMs)
+            .put("underruns", underrunCount)
+            .put("audioSinkErrors", audioSinkErrorCount)
+            .put("playerErrors", playerErrorCount);
+    }
+}
@@ -0,0 +1,110 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.os.SystemClock;
+import androidx.media3.common.C;
+import androidx.media3.common.Player;
+import com.getcapacitor.JSObject;
+
+/**
+ * An immutable copy of an audio source's playback state, captured on the player's application
+ * thread and readable from any thread. While playing, the position is extrapolated from the
+ * time it was captured at and the playback rate.
+ */
+public final class PlaybackSnapshot {
+
+    public static final PlaybackSnapshot EMPTY = new PlaybackSnapshot(
+        "stopped",
+        false,
+        0,
+        0,
+        1,
+        C.TIME_UNSET,
+        0,
+        1
+    );
+
+    public final String status;
+    public final boolean isPlaying;
+    public final long positionMs;
+    public final long capturedAtMs;
+    public final float rate;
+    public final long durationMs;
+    public final long bufferedPositionMs;
+    public final float volume;
+
+    private PlaybackSnapshot(
+        String status,
+        boolean isPlaying,
+        long positionMs,
+        long capturedAtMs,
+        float rate,
+        long durationMs,
+        long bufferedPositionMs,
+        float volume
+    ) {
+        this.status = status;
+        this.isPlaying = isPlaying;
+        this.positionMs = positionMs;
+        this.capturedAtMs = capturedAtMs;
+        this.rate = rate;
+        this.durationMs = durationMs;
+        this.bufferedPositionMs = bufferedPositionMs;
+        this.volume = volume;
+    }
+
+    /**
+     * Must be called on the player's application thread.
+     *
+     * @param status The audio source's status: playing, paused or stopped
+     */
+    public static PlaybackSnapshot capture(Player player, String status) {
+        return new PlaybackSnapshot(
+            status,
+            player.isPlaying(),
+            player.getCurrentPosition(),
+            SystemClock.elapsedRealtime(),
+            player.getPlaybackParameters().speed,
+            player.getDuration(),
+            player.getBufferedPosition(),
+            player.getVolume()
+        );
+    }
+
+    public long getCurrentPositionMs() {
+        if (!isPlaying) {
+            return positionMs;
+        }
+
+        long elapsedMs = SystemClock.elapsedRealtime() - capturedAtMs;
+        long currentPositionMs = positionMs + (long) (elapsedMs * rate);
+
+        return durationMs == C.TIME_UNSET
+            ? currentPositionMs
+            : Math.min(currentPositionMs, durationMs);
+    }
+
+    /**
+     * In seconds, `-1` if unknown
+     */
+    public float getDuration() {
+        return durationMs == C.TIME_UNSET ? -1 : durationMs / 1000.0f;
+    }
+
+    /**
+     * In seconds
+     */
+    public float getCurrentTime() {
+        return getCurrentPositionMs() / 1000.0f;
+    }
+
+    public JSObject toJSObject() {
+        return new JSObject()
+            .put("status", status)
+            .put("isPlaying", isPlaying)
+            .put("currentTime", getCurrentTime())
+            .put("duration", getDuration())
+            .put("bufferedTime", bufferedPositionMs / 1000.0f)
+            .put("rate", rate)
+            .put("volume", volume);
+    }
+}
@@ -0,0 +1,261 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.OptIn;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The playback threads of the non-notification ExoPlayers. With a count of 0 every player
+ * starts its own, as ExoPlayer does by default. Otherwise the players share that many threads
+ * and new players go to the one with the fewest players.
+ *
+ * The preload manager and the players taking over preloaded sources, see
+ * {@link AudioPreloader}, run on the first shared thread, or on a preload thread of their own
+ * when there are none.
+ *
+ * While players are playing, a message is posted to each busy thread every
+ * {@link #PROBE_INTERVAL_MS} and how long it waits in the queue is recorded as the loop's
+ * latency. ExoPlayer expects its messages to be handled within 10ms, later ones risk underruns.
+ *
+ * Only used on the players' application thread, see {@link AudioThread}, apart from the
+ * probes recording their latency.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class PlaybackThreads {
+
+    private static final String TAG = "PlaybackThreads";
+    private static final long PROBE_INTERVAL_MS = 500;
+    private static final long LATE_THRESHOLD_MS = 10;
+
+    private final Handler handler = new Handler(Looper.myLooper());
+    private final Runnable probeRunner = this::probe;
+    private final int sharedCount;
+    // The shared threads, followed by the preload thread if it isn't one of them
+    private final List<Loop> loops = new ArrayList<>();
+    private final Loop preloadLoop;
+    private boolean probing = false;
+
+    /**
+     * @param count How many threads the players share, 0 for a thread per player
+     */
+    public PlaybackThreads(int count) {
+        sharedCount = Math.max(0, count);
+
+        for (int i = 0; i < sharedCount; i++) {
+            loops.add(new Loop(String.format("AudioPlayback-%s", i)));
+        }
+
+        if (loops.isEmpty()) {
+            loops.add(new Loop("AudioPreload"));
+        }
+
+        preloadLoop = loops.get(0);
+
+        Log.i(TAG, String.format("Started %s shared playback thread(s)", sharedCount));
+    }
+
+    public PlaybackThreads(AudioPlayerConfig config) {
+        this(config.getPlaybackThreads());
+    }
+
+    /**
+     * The thread preloading runs on, so its players can take over preloaded sources.
+     */
+    public Looper getPreloadLooper() {
+        return preloadLoop.looper;
+    }
+
+    /**
+     * Builds a player on the least busy shared thread.
+     *
+     * @param playerFactory Builds the player with the given playback looper, `null` when
+     *     there are no shared threads and the player should start its own
+     */
+    public ExoPlayer buildPlayer(Function<Looper, ExoPlayer> playerFactory) {
+        if (sharedCount == 0) {
+            return playerFactory.apply(null);
+        }
+
+        Loop leastBusy = loops.get(0);
+
+        for (Loop loop : loops.subList(0, sharedCount)) {
+            if (loop.countPlayers() < leastBusy.countPlayers()) {
+                leastBusy = loop;
+            }
+        }
+
+        return track(leastBusy, playerFactory.apply(leastBusy.looper));
+    }
+
+    /**
+     * Builds a player on the preload thread.
+     *
+     * @param playerFactory Builds the player with the preload manager's playback looper
+     */
+    public ExoPlayer buildPreloadPlayer(Supplier<ExoPlayer> playerFactory) {
+        return track(preloadLoop, playerFactory.get());
+    }
+
+    public Bundle getStats() {
+        Bundle threads = new Bundle();
+
+        for (Loop loop : loops) {
+            threads.putBundle(loop.thread.getName(), loop.getStats());
+        }
+
+        Bundle stats = new Bundle();
+        stats.putInt("count", sharedCount);
+        // Thread.activeCount() only counts the caller's thread group
+        stats.putInt("processThreads", Thread.getAllStackTraces().size());
+        stats.putBundle("threads", threads);
+
+        return stats;
+    }
+
+    /**
+     * Call once every player on the threads is released.
+     */
+    public void release() {
+        handler.removeCallbacks(probeRunner);
+        probing = false;
+
+        for (Loop loop : loops) {
+            loop.thread.quitSafely();
+        }
+    }
+
+    private ExoPlayer track(Loop loop, ExoPlayer player) {
+        loop.players.add(player);
+        player.addListener(
+            new Player.Listener() {
+                @Override
+                public void onIsPlayingChanged(boolean isPlaying) {
+                    if (isPlaying) {
+                        startProbing();
+                    }
+                }
+            }
+        );
+
+        return player;
+    }
+
+    private void startProbing() {
+        if (!probing) {
+            probing = true;
+            handler.post(probeRunner);
+        }
+    }
+
+    private void probe() {
+        boolean anyPlaying = false;
+
+        for (Loop loop : loops) {
+            if (loop.countPlaying() > 0) {
+                anyPlaying = true;
+                loop.postProbe();
+            }
+        }
+
+        probing = anyPlaying;
+
+        if (anyPlaying) {
+            handler.postDelayed(probeRunner, PROBE_INTERVAL_MS);
+        }
+    }
+
+    private static class Loop {
+
+        final HandlerThread thread;
+        final Looper looper;
+        final Handler handler;
+        // Released players drop out on their own
+        final Set<ExoPlayer> players = Collections.newSetFromMap(new WeakHashMap<>());
+
+        // Guarded by this, written from the loop's thread
+        private long probeCount = 0;
+        private long lateProbeCount = 0;
+        private long totalLatencyMs = 0;
+        private long maxLatencyMs = 0;
+
+        Loop(String name) {
+            thread = new HandlerThread(name, Process.THREAD_PRIORITY_AUDIO);
+            thread.start();
+            looper = thread.getLooper();
+            handler = new Handler(looper);
+        }
+
+        int countPlayers() {
+            int count = 0;
+
+            for (ExoPlayer player : players) {
+                if (!player.isReleased()) {
+                    count++;
+                }
+            }
+
+            return count;
+        }
+
+        int countPlaying() {
+            int count = 0;
+
+            for (ExoPlayer player : players) {
+                if (!player.isReleased() && player.isPlaying()) {
+                    count++;
+                }
+            }
+
+            return count;
+        }
+
+        void postProbe() {
+            long postedAtMs = SystemClock.uptimeMillis();
+
+            handler.post(() -> recordLatency(SystemClock.uptimeMillis() - postedAtMs));
+        }
+
+        synchronized void recordLatency(long latencyMs) {
+            probeCount++;
+            totalLatencyMs += latencyMs;
+            maxLatencyMs = Math.max(maxLatencyMs, latencyMs);
+
+            if (latencyMs > LATE_THRESHOLD_MS) {
+                lateProbeCount++;
+            }
+        }
+
+        Bundle getStats() {
+            Bundle stats = new Bundle();
+            stats.putInt("players", countPlayers());
+            stats.putInt("playing", countPlaying());
+
+            synchronized (this) {
+                stats.putLong("probes", probeCount);
+                stats.putLong("lateProbes", lateProbeCount);
+                stats.putDouble(
+                    "averageLatencyMs",
+                    probeCount == 0 ? 0 : totalLatencyMs / (double) probeCount
+                );
+                stats.putLong("maxLatencyMs", maxLatencyMs);
+            }
+
+            return stats;
+        }
+    }
+}
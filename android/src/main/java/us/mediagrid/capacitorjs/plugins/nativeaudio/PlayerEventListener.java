@@ -2,6 +2,8 @@ package us.mediagrid.capacitorjs.plugins.nativeaudio;
 
 import static androidx.media3.common.Player.*;
 
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.Player;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.PluginCall;
 
@@ -42,6 +44,33 @@ public class PlayerEventListener implements Listener {
             audioSource.onPlaybackStatusChangeCallbackId,
             new JSObject().put("status", status)
         );
+
+        plugin.getTimeUpdateTicker().refresh();
+    }
+
+    @Override
+    public void onEvents(Player player, Events events) {
+        // After the individual callbacks, so the status is already up to date
+        audioSource.updateSnapshot();
+    }
+
+    @Override
+    public void onMediaItemTransition(MediaItem mediaItem, @MediaItemTransitionReason int reason) {
+        // Playlist changes are handled by whoever changed it
+        if (
+            reason == MEDIA_ITEM_TRANSITION_REASON_PLAYLIST_CHANGED ||
+            !audioSource.onQueueItemChanged()
+        ) {
+            return;
+        }
+
+        makeCall(
+            audioSource.onQueueItemChangeCallbackId,
+            new JSObject()
+                .put("index", audioSource.getQueueIndex())
+                .put("size", audioSource.getQueueSize())
+                .put("source", audioSource.source)
+        );
     }
 
     @Override
@@ -0,0 +1,180 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.media3.common.Player;
+import androidx.media3.exoplayer.ExoPlayer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of ExoPlayers for non-notification audio sources.
+ *
+ * Players are handed out reset and returned players are kept around (up to the max size)
+ * instead of being released, so creating and destroying short audio sources doesn't pay
+ * for building a player, its renderers and threads every time.
+ *
+ * Must only be used from the thread it was created on, the application thread of the players
+ * it hands out, see {@link AudioThread}.
+ */
+public class PlayerPool {
+
+    private static final String TAG = "PlayerPool";
+
+    private final Supplier<ExoPlayer> playerFactory;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+
+    private final ArrayDeque<IdlePlayer> idlePlayers = new ArrayDeque<>();
+    private final Handler evictionHandler = new Handler(Looper.myLooper());
+    private final Runnable evictionRunner = this::evictIdlePlayers;
+
+    private int createdCount = 0;
+    private int reusedCount = 0;
+    private int returnedCount = 0;
+    private int evictedCount = 0;
+    private int discardedCount = 0;
+    private int inUseCount = 0;
+
+    public PlayerPool(
+        Supplier<ExoPlayer> playerFactory,
+        int minSize,
+        int maxSize,
+        long idleTimeoutMs
+    ) {
+        this.playerFactory = playerFactory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    public PlayerPool(Supplier<ExoPlayer> playerFactory, AudioPlayerConfig config) {
+        this(
+            playerFactory,
+            config.getPlayerPoolMinSize(),
+            config.getPlayerPoolMaxSize(),
+            config.getPlayerPoolIdleTimeoutMs()
+        );
+    }
+
+    public void prewarm() {
+        Log.i(TAG, String.format("Pre-warming %s player(s)", minSize));
+
+        while (idlePlayers.size() < minSize) {
+            idlePlayers.addLast(new IdlePlayer(buildPlayer()));
+        }
+    }
+
+    public ExoPlayer acquire() {
+        inUseCount++;
+
+        IdlePlayer idlePlayer = idlePlayers.pollLast();
+
+        if (idlePlayer != null) {
+            reusedCount++;
+
+            return idlePlayer.player;
+        }
+
+        return buildPlayer();
+    }
+
+    public void release(ExoPlayer player) {
+        inUseCount = Math.max(0, inUseCount - 1);
+
+        if (idlePlayers.size() >= maxSize) {
+            discardedCount++;
+            player.release();
+
+            return;
+        }
+
+        reset(player);
+
+        returnedCount++;
+        idlePlayers.addLast(new IdlePlayer(player));
+
+        scheduleEviction();
+    }
+
+    public void releaseAll() {
+        evictionHandler.removeCallbacks(evictionRunner);
+
+        for (IdlePlayer idlePlayer : idlePlayers) {
+            idlePlayer.player.release();
+        }
+
+        idlePlayers.clear();
+    }
+
+    public Bundle getStats() {
+        Bundle stats = new Bundle();
+        stats.putInt("idle", idlePlayers.size());
+        stats.putInt("inUse", inUseCount);
+        stats.putInt("created", createdCount);
+        stats.putInt("reused", reusedCount);
+        stats.putInt("returned", returnedCount);
+        stats.putInt("evicted", evictedCount);
+        stats.putInt("discarded", discardedCount);
+
+        return stats;
+    }
+
+    private ExoPlayer buildPlayer() {
+        createdCount++;
+
+        return playerFactory.get();
+    }
+
+    private void reset(ExoPlayer player) {
+        player.stop();
+        player.clearMediaItems();
+        player.setPlayWhenReady(false);
+        player.setRepeatMode(Player.REPEAT_MODE_OFF);
+        player.setVolume(1f);
+        player.setPlaybackSpeed(1f);
+    }
+
+    private void scheduleEviction() {
+        evictionHandler.removeCallbacks(evictionRunner);
+
+        if (idlePlayers.size() > minSize) {
+            evictionHandler.postDelayed(evictionRunner, idleTimeoutMs);
+        }
+    }
+
+    private void evictIdlePlayers() {
+        long now = SystemClock.elapsedRealtime();
+        Iterator<IdlePlayer> iterator = idlePlayers.iterator();
+
+        // Oldest first, so the most recently returned (warmest) players are kept
+        while (iterator.hasNext() && idlePlayers.size() > minSize) {
+            IdlePlayer idlePlayer = iterator.next();
+
+            if (now - idlePlayer.idleSince < idleTimeoutMs) {
+                break;
+            }
+
+            iterator.remove();
+            idlePlayer.player.release();
+            evictedCount++;
+        }
+
+        scheduleEviction();
+    }
+
+    private static class IdlePlayer {
+
+        final ExoPlayer player;
+        final long idleSince = SystemClock.elapsedRealtime();
+
+        IdlePlayer(ExoPlayer player) {
+            this.player = player;
+        }
+    }
+}
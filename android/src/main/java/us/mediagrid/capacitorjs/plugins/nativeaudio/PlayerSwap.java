@@ -0,0 +1,198 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.os.Handler;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.media3.common.PlaybackException;
+import androidx.media3.common.Player;
+import androidx.media3.exoplayer.ExoPlayer;
+
+/**
+ * A seamless `changeAudioSource`. The new source is prepared in a standby player while the
+ * current player keeps playing, and the audio source only switches over once the standby
+ * player reports {@link Player#STATE_READY}, optionally crossfading between the two.
+ *
+ * If the standby player isn't ready within the timeout or fails, it is dropped and the
+ * source is changed on the current player instead, like a plain `changeAudioSource`.
+ *
+ * Only used on the audio source's application thread, which the standby player shares.
+ */
+public class PlayerSwap implements Player.Listener {
+
+    private static final String TAG = "PlayerSwap";
+    private static final long FADE_STEP_MS = 25;
+
+    private final Handler handler;
+    private final Runnable timeoutRunner = this::onTimeout;
+    private final Runnable fadeRunner = this::fadeStep;
+    private final AudioSource audioSource;
+    private final String newSource;
+    private final ExoPlayer standbyPlayer;
+    private final long crossfadeMs;
+    private final Runnable onDone;
+
+    private boolean swapped = false;
+    private boolean finished = false;
+    // Set once swapped, while it fades out
+    private Player previousPlayer = null;
+    private float volume = 1;
+    private long fadeStartedAtMs = 0;
+
+    /**
+     * @param onDone Runs once the audio source switched to the new source, either player, or
+     *     the swap was cancelled
+     */
+    PlayerSwap(
+        AudioSource audioSource,
+        String newSource,
+        ExoPlayer standbyPlayer,
+        long crossfadeMs,
+        Runnable onDone
+    ) {
+        this.audioSource = audioSource;
+        this.newSource = newSource;
+        this.standbyPlayer = standbyPlayer;
+        this.handler = new Handler(standbyPlayer.getApplicationLooper());
+        this.crossfadeMs = crossfadeMs;
+        this.onDone = onDone;
+    }
+
+    public void start(long timeoutMs) {
+        standbyPlayer.addListener(this);
+        standbyPlayer.prepare();
+
+        if (timeoutMs > 0) {
+            handler.postDelayed(timeoutRunner, timeoutMs);
+        }
+    }
+
+    /**
+     * Drops the standby player without changing the source, or if already swapped, cuts the
+     * fade out short. For when the source is changed again or destroyed.
+     */
+    public void cancel() {
+        if (finished) {
+            return;
+        }
+
+        if (swapped) {
+            finishFade();
+        } else {
+            dropStandbyPlayer();
+            onDone.run();
+        }
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void onPlaybackStateChanged(@Player.State int playbackState) {
+        if (playbackState == Player.STATE_READY && !swapped && !finished) {
+            swap();
+        }
+    }
+
+    @Override
+    public void onPlayerError(PlaybackException error) {
+        if (!swapped && !finished) {
+            Log.w(TAG, String.format("The standby player for %s failed", audioSource.id), error);
+            fallBack("failed");
+        }
+    }
+
+    private void onTimeout() {
+        if (!swapped && !finished) {
+            fallBack("timed out");
+        }
+    }
+
+    private void swap() {
+        swapped = true;
+        handler.removeCallbacks(timeoutRunner);
+        standbyPlayer.removeListener(this);
+
+        previousPlayer = audioSource.getPlayer();
+        volume = previousPlayer.getVolume();
+        boolean playing = previousPlayer.getPlayWhenReady();
+
+        boolean crossfade = playing && crossfadeMs > 0;
+
+        audioSource.attachPlayer(standbyPlayer, newSource);
+
+        if (crossfade) {
+            standbyPlayer.setVolume(0);
+        }
+
+        if (playing) {
+            standbyPlayer.play();
+        }
+
+        onDone.run();
+
+        if (!crossfade) {
+            finishFade();
+
+            return;
+        }
+
+        fadeStartedAtMs = SystemClock.elapsedRealtime();
+        handler.post(fadeRunner);
+    }
+
+    // Equal power, so the overall loudness doesn't dip halfway through
+    private void fadeStep() {
+        float progress = Math.min(
+            1,
+            (SystemClock.elapsedRealtime() - fadeStartedAtMs) / (float) crossfadeMs
+        );
+        double angle = progress * Math.PI / 2;
+
+        standbyPlayer.setVolume((float) (volume * Math.sin(angle)));
+        previousPlayer.setVolume((float) (volume * Math.cos(angle)));
+
+        if (progress >= 1) {
+            finishFade();
+        } else {
+            handler.postDelayed(fadeRunner, FADE_STEP_MS);
+        }
+    }
+
+    private void finishFade() {
+        finished = true;
+        handler.removeCallbacks(fadeRunner);
+        standbyPlayer.setVolume(volume);
+
+        if (previousPlayer != null) {
+            audioSource.returnPlayer(previousPlayer);
+            previousPlayer = null;
+        }
+    }
+
+    private void fallBack(String reason) {
+        Log.w(
+            TAG,
+            String.format(
+                "Seamless source change for %s %s, changing the source in place",
+                audioSource.id,
+                reason
+            )
+        );
+
+        dropStandbyPlayer();
+
+        if (audioSource.isInitialized()) {
+            audioSource.changeAudioSource(newSource);
+        }
+
+        onDone.run();
+    }
+
+    private void dropStandbyPlayer() {
+        finished = true;
+        handler.removeCallbacks(timeoutRunner);
+        standbyPlayer.removeListener(this);
+        audioSource.returnPlayer(standbyPlayer);
+    }
+}
@@ -0,0 +1,62 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import com.getcapacitor.JSArray;
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONObject;
+
+/**
+ * One item of an audio source's queue, played back to back with the other items on the
+ * source's player.
+ */
+public class QueueItem {
+
+    public final String source;
+    public final AudioMetadata metadata;
+    public final Boolean useCache;
+
+    public QueueItem(String source, AudioMetadata metadata, Boolean useCache) {
+        this.source = source;
+        this.metadata = metadata;
+        this.useCache = useCache;
+    }
+
+    /**
+     * @throws IllegalArgumentException If an item has no `source`
+     */
+    public static List<QueueItem> parse(JSArray items) throws Exception {
+        List<QueueItem> queueItems = new ArrayList<>(items.length());
+
+        for (int i = 0; i < items.length(); i++) {
+            JSONObject item = items.getJSONObject(i);
+            String source = item.optString("source");
+
+            if (source.isEmpty()) {
+                throw new IllegalArgumentException(
+                    String.format("Queue item %d is missing \"source\"", i)
+                );
+            }
+
+            queueItems.add(
+                new QueueItem(
+                    source,
+                    new AudioMetadata(
+                        optString(item, "albumTitle"),
+                        optString(item, "artistName"),
+                        optString(item, "friendlyTitle"),
+                        optString(item, "artworkSource"),
+                        null,
+                        null
+                    ),
+                    item.has("cache") ? item.getBoolean("cache") : null
+                )
+            );
+        }
+
+        return queueItems;
+    }
+
+    private static String optString(JSONObject item, String name) {
+        return item.isNull(name) ? null : item.optString(name);
+    }
+}
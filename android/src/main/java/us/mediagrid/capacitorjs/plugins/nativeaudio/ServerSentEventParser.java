@@ -0,0 +1,120 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+/**
+ * Parses a `text/event-stream` one line at a time, following the HTML spec's event stream
+ * interpretation. Pure Java so it can be fed from any stream.
+ */
+public class ServerSentEventParser {
+
+    public static class Event {
+
+        public final String id;
+        public final String type;
+        public final String data;
+
+        Event(String id, String type, String data) {
+            this.id = id;
+            this.type = type;
+            this.data = data;
+        }
+    }
+
+    public interface Listener {
+        void onEvent(Event event);
+
+        void onRetry(long retryMs);
+    }
+
+    private final Listener listener;
+    private final StringBuilder data = new StringBuilder();
+
+    private String eventType = null;
+    private String lastEventId;
+
+    /**
+     * @param lastEventId The ID of the last event received before reconnecting, `null` if none
+     */
+    public ServerSentEventParser(String lastEventId, Listener listener) {
+        this.lastEventId = lastEventId;
+        this.listener = listener;
+    }
+
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * @param line A line without its line ending
+     */
+    public void parseLine(String line) {
+        if (line.isEmpty()) {
+            dispatch();
+
+            return;
+        }
+
+        if (line.startsWith(":")) {
+            // Comment, usually a heartbeat
+            return;
+        }
+
+        int colonIndex = line.indexOf(':');
+        String field = colonIndex == -1 ? line : line.substring(0, colonIndex);
+        String value = "";
+
+        if (colonIndex != -1) {
+            value = line.substring(colonIndex + 1);
+
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+        }
+
+        switch (field) {
+            case "event":
+                eventType = value;
+                break;
+            case "data":
+                data.append(value).append('\n');
+                break;
+            case "id":
+                if (value.indexOf('\0') == -1) {
+                    lastEventId = value;
+                }
+                break;
+            case "retry":
+                if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+                    try {
+                        listener.onRetry(Long.parseLong(value));
+                    } catch (NumberFormatException ex) {
+                        // Too large, ignored like any other invalid field
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void dispatch() {
+        if (data.length() == 0) {
+            eventType = null;
+
+            return;
+        }
+
+        // Drop the trailing line feed
+        data.setLength(data.length() - 1);
+
+        Event event = new Event(
+            lastEventId,
+            eventType == null || eventType.isEmpty() ? "message" : eventType,
+            data.toString()
+        );
+
+        data.setLength(0);
+        eventType = null;
+
+        listener.onEvent(event);
+    }
+}
@@ -0,0 +1,562 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.AudioAttributes;
+import android.media.MediaMetadataRetriever;
+import android.media.SoundPool;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+import com.getcapacitor.JSObject;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Plays `lowLatency` audio sources: short effects decoded to PCM once and mixed by a single
+ * shared {@link SoundPool}, instead of an ExoPlayer per source.
+ *
+ * Every `play` starts a new voice, so an effect can overlap itself. When all voices are in
+ * use, the oldest voice is stolen. Volume and rate apply to the effect's current and future
+ * voices.
+ *
+ * {@link SoundPool} doesn't say when a voice finishes, so one-shot voices are dropped from the
+ * bookkeeping once the clip's duration (at the voice's rate) has played.
+ */
+public class SoundEffectEngine {
+
+    private static final String TAG = "SoundEffectEngine";
+    private static final float MIN_RATE = 0.5f;
+    private static final float MAX_RATE = 2.0f;
+    private static final String DOWNLOAD_DIRECTORY = "audio_player_effects";
+    private static final int CONNECT_TIMEOUT_MS = 10 * 1000;
+    private static final int READ_TIMEOUT_MS = 30 * 1000;
+    // Least recently used downloads are deleted beyond this
+    private static final long MAX_DOWNLOAD_BYTES = 32 * 1024 * 1024;
+
+    public class SoundEffect {
+
+        public final String audioId;
+        public final boolean loop;
+
+        private final ConcurrentLinkedDeque<Voice> voices = new ConcurrentLinkedDeque<>();
+
+        private volatile int soundId = 0;
+        // 0 if it couldn't be read
+        private volatile long durationMs = 0;
+        private volatile boolean loaded = false;
+        private volatile boolean failed = false;
+        private volatile boolean playWhenLoaded = false;
+        private volatile boolean paused = false;
+        private volatile float volume = 1;
+        private volatile float rate = 1;
+        // Waiting for the load to finish, guarded by the engine
+        private final List<Consumer<Boolean>> loadListeners = new ArrayList<>();
+        // Guarded by the engine, set by unload() even while the load is still in flight
+        private boolean unloaded = false;
+
+        private SoundEffect(String audioId, boolean loop) {
+            this.audioId = audioId;
+            this.loop = loop;
+        }
+
+        public boolean isLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Whether it couldn't be downloaded or decoded, so it will never load
+         */
+        public boolean hasFailed() {
+            return failed;
+        }
+    }
+
+    private static class Voice {
+
+        final SoundEffect effect;
+        final int streamId;
+        // Whether it ends on its own at a known time: not looping and the duration is known
+        final boolean timed;
+        long endsAtMs;
+        // Playback left while paused
+        long remainingMs = 0;
+
+        Voice(SoundEffect effect, int streamId, boolean timed, long endsAtMs) {
+            this.effect = effect;
+            this.streamId = streamId;
+            this.timed = timed;
+            this.endsAtMs = endsAtMs;
+        }
+    }
+
+    private final Context context;
+    private final ExecutorService executorService;
+    private final SoundPool soundPool;
+    private final int maxVoices;
+    private final ConcurrentHashMap<Integer, SoundEffect> effectsBySoundId =
+        new ConcurrentHashMap<>();
+    // Oldest first, for voice stealing across effects
+    private final ConcurrentLinkedDeque<Voice> activeVoices = new ConcurrentLinkedDeque<>();
+
+    private long playCount = 0;
+    private long stolenCount = 0;
+    private boolean released = false;
+
+    public SoundEffectEngine(Context context, AudioPlayerConfig config, ExecutorService executor) {
+        this.context = context.getApplicationContext();
+        this.executorService = executor;
+        this.maxVoices = config.getSoundEffectMaxVoices();
+        this.soundPool = new SoundPool.Builder()
+            .setMaxStreams(maxVoices)
+            .setAudioAttributes(
+                new AudioAttributes.Builder()
+                    .setUsage(AudioAttributes.USAGE_GAME)
+                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                    .build()
+            )
+            .build();
+
+        soundPool.setOnLoadCompleteListener((pool, soundId, status) -> {
+            onLoadComplete(soundId, status);
+        });
+    }
+
+    /**
+     * Decodes the source in the background. Supports in-app assets (a path relative to
+     * `public`, or `asset:///`), `file://` paths and http(s) URLs, which are downloaded first.
+     *
+     * @param onLoaded Called with whether the effect could be decoded
+     */
+    public SoundEffect load(
+        String audioId,
+        String source,
+        boolean loop,
+        Consumer<Boolean> onLoaded
+    ) {
+        SoundEffect effect = new SoundEffect(audioId, loop);
+
+        if (onLoaded != null) {
+            effect.loadListeners.add(onLoaded);
+        }
+
+        executorService.execute(() -> {
+            try {
+                Uri uri = Uri.parse(source);
+                boolean isRemote =
+                    "http".equals(uri.getScheme()) || "https".equals(uri.getScheme());
+                // Downloading happens outside the lock
+                Uri localUri = isRemote ? Uri.fromFile(download(source)) : uri;
+                effect.durationMs = readDurationMs(localUri, source);
+
+                synchronized (this) {
+                    // Destroyed or released while downloading or reading it
+                    if (effect.unloaded || released) {
+                        return;
+                    }
+
+                    effect.soundId = loadIntoPool(localUri, source);
+                    effectsBySoundId.put(effect.soundId, effect);
+                }
+            } catch (Exception ex) {
+                Log.e(TAG, String.format("Could not load the sound effect %s", audioId), ex);
+
+                synchronized (this) {
+                    effect.failed = true;
+                    notifyLoadListeners(effect);
+                }
+            }
+        });
+
+        return effect;
+    }
+
+    /**
+     * Calls back with whether the effect loaded, right away if its load already finished.
+     */
+    public synchronized void whenLoaded(SoundEffect effect, Consumer<Boolean> onLoaded) {
+        if (effect.loaded || effect.failed) {
+            onLoaded.accept(effect.loaded);
+        } else if (!effect.unloaded) {
+            effect.loadListeners.add(onLoaded);
+        }
+    }
+
+    public synchronized void play(SoundEffect effect) {
+        expireFinishedVoices();
+
+        if (!effect.loaded) {
+            effect.playWhenLoaded = true;
+
+            return;
+        }
+
+        if (effect.paused) {
+            resume(effect);
+
+            return;
+        }
+
+        // Without a duration there's no telling when earlier one-shots ended, assume they did
+        if (!effect.loop && effect.durationMs == 0) {
+            dropVoices(effect);
+        }
+
+        // Steal the oldest voice ourselves so the bookkeeping stays right
+        if (activeVoices.size() >= maxVoices) {
+            Voice stolenVoice = activeVoices.pollFirst();
+
+            if (stolenVoice != null) {
+                soundPool.stop(stolenVoice.streamId);
+                stolenVoice.effect.voices.remove(stolenVoice);
+                stolenCount++;
+            }
+        }
+
+        int streamId = soundPool.play(
+            effect.soundId,
+            effect.volume,
+            effect.volume,
+            1,
+            effect.loop ? -1 : 0,
+            effect.rate
+        );
+
+        if (streamId != 0) {
+            boolean timed = !effect.loop && effect.durationMs > 0;
+            Voice voice = new Voice(
+                effect,
+                streamId,
+                timed,
+                timed
+                    ? SystemClock.uptimeMillis() + (long) (effect.durationMs / effect.rate)
+                    : Long.MAX_VALUE
+            );
+
+            playCount++;
+            effect.voices.add(voice);
+            activeVoices.add(voice);
+        }
+    }
+
+    public synchronized void pause(SoundEffect effect) {
+        expireFinishedVoices();
+        effect.playWhenLoaded = false;
+
+        // Nothing left to resume, the next play starts over
+        if (effect.voices.isEmpty()) {
+            return;
+        }
+
+        effect.paused = true;
+        long nowMs = SystemClock.uptimeMillis();
+
+        for (Voice voice : effect.voices) {
+            soundPool.pause(voice.streamId);
+
+            if (voice.timed) {
+                voice.remainingMs = Math.max(0, voice.endsAtMs - nowMs);
+                voice.endsAtMs = Long.MAX_VALUE;
+            }
+        }
+    }
+
+    public synchronized void stop(SoundEffect effect) {
+        effect.playWhenLoaded = false;
+        effect.paused = false;
+
+        for (Voice voice : effect.voices) {
+            soundPool.stop(voice.streamId);
+        }
+
+        dropVoices(effect);
+    }
+
+    public synchronized void setVolume(SoundEffect effect, float volume) {
+        effect.volume = Math.max(0, Math.min(1, volume));
+
+        for (Voice voice : effect.voices) {
+            soundPool.setVolume(voice.streamId, effect.volume, effect.volume);
+        }
+    }
+
+    public synchronized void setRate(SoundEffect effect, float rate) {
+        float previousRate = effect.rate;
+        effect.rate = Math.max(MIN_RATE, Math.min(MAX_RATE, rate));
+        float speedUp = effect.rate / previousRate;
+        long nowMs = SystemClock.uptimeMillis();
+
+        for (Voice voice : effect.voices) {
+            soundPool.setRate(voice.streamId, effect.rate);
+
+            if (!voice.timed) {
+                continue;
+            }
+
+            if (effect.paused) {
+                voice.remainingMs = (long) (voice.remainingMs / speedUp);
+            } else {
+                voice.endsAtMs = nowMs + (long) (Math.max(0, voice.endsAtMs - nowMs) / speedUp);
+            }
+        }
+    }
+
+    public synchronized void unload(SoundEffect effect) {
+        stop(effect);
+        effect.loadListeners.clear();
+        effect.unloaded = true;
+
+        if (effect.soundId != 0) {
+            effectsBySoundId.remove(effect.soundId);
+            soundPool.unload(effect.soundId);
+        }
+    }
+
+    public synchronized JSObject getStats() {
+        expireFinishedVoices();
+
+        return new JSObject()
+            .put("effects", effectsBySoundId.size())
+            .put("voices", activeVoices.size())
+            .put("maxVoices", maxVoices)
+            .put("plays", playCount)
+            .put("stolenVoices", stolenCount);
+    }
+
+    public synchronized void release() {
+        released = true;
+        effectsBySoundId.clear();
+        activeVoices.clear();
+        soundPool.release();
+    }
+
+    // Synchronized with load so the effect is always registered by the time this runs
+    private synchronized void onLoadComplete(int soundId, int status) {
+        SoundEffect effect = effectsBySoundId.get(soundId);
+
+        if (effect == null) {
+            return;
+        }
+
+        effect.loaded = status == 0;
+        effect.failed = !effect.loaded;
+
+        if (!effect.loaded) {
+            Log.e(TAG, String.format("Could not decode the sound effect %s", effect.audioId));
+        }
+
+        notifyLoadListeners(effect);
+
+        if (effect.loaded && effect.playWhenLoaded) {
+            play(effect);
+        }
+    }
+
+    private void notifyLoadListeners(SoundEffect effect) {
+        for (Consumer<Boolean> listener : effect.loadListeners) {
+            listener.accept(effect.loaded);
+        }
+
+        effect.loadListeners.clear();
+    }
+
+    private void resume(SoundEffect effect) {
+        effect.paused = false;
+        long nowMs = SystemClock.uptimeMillis();
+
+        for (Voice voice : effect.voices) {
+            soundPool.resume(voice.streamId);
+
+            if (voice.timed) {
+                voice.endsAtMs = nowMs + voice.remainingMs;
+            }
+        }
+    }
+
+    private void expireFinishedVoices() {
+        long nowMs = SystemClock.uptimeMillis();
+        Iterator<Voice> iterator = activeVoices.iterator();
+
+        while (iterator.hasNext()) {
+            Voice voice = iterator.next();
+
+            if (voice.endsAtMs <= nowMs) {
+                iterator.remove();
+                voice.effect.voices.remove(voice);
+            }
+        }
+    }
+
+    private void dropVoices(SoundEffect effect) {
+        for (Voice voice : effect.voices) {
+            activeVoices.remove(voice);
+        }
+
+        effect.voices.clear();
+    }
+
+    /**
+     * @return The clip's duration, 0 if it can't be read
+     */
+    private long readDurationMs(Uri uri, String source) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+
+        try {
+            String scheme = uri.getScheme();
+
+            if (scheme == null || scheme.equals("asset")) {
+                String path = scheme == null ? "public/" + source : uri.getPath().substring(1);
+
+                try (AssetFileDescriptor descriptor = context.getAssets().openFd(path)) {
+                    retriever.setDataSource(
+                        descriptor.getFileDescriptor(),
+                        descriptor.getStartOffset(),
+                        descriptor.getLength()
+                    );
+                }
+            } else {
+                retriever.setDataSource(uri.getPath());
+            }
+
+            String duration = retriever.extractMetadata(
+                MediaMetadataRetriever.METADATA_KEY_DURATION
+            );
+
+            return duration != null ? Long.parseLong(duration) : 0;
+        } catch (Exception ex) {
+            Log.w(TAG, String.format("Could not read the duration of %s", source), ex);
+
+            return 0;
+        } finally {
+            try {
+                retriever.release();
+            } catch (Exception ex) {
+                // Nothing to do, it's done with
+            }
+        }
+    }
+
+    private int loadIntoPool(Uri uri, String source) throws IOException {
+        String scheme = uri.getScheme();
+
+        if (scheme == null || scheme.equals("asset")) {
+            String path = scheme == null ? "public/" + source : uri.getPath().substring(1);
+
+            try (AssetFileDescriptor descriptor = context.getAssets().openFd(path)) {
+                return soundPool.load(descriptor, 1);
+            }
+        }
+
+        if (scheme.equals("file")) {
+            return soundPool.load(uri.getPath(), 1);
+        }
+
+        throw new IOException(String.format("Unsupported sound effect source %s", source));
+    }
+
+    // Runs on the shared plugin executor, so it must not hang on a slow or unreachable host
+    private File download(String source) throws Exception {
+        File directory = new File(context.getCacheDir(), DOWNLOAD_DIRECTORY);
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create the sound effect cache directory");
+        }
+
+        File file = new File(directory, sha256(source));
+
+        if (file.isFile()) {
+            file.setLastModified(System.currentTimeMillis());
+
+            return file;
+        }
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(source).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        File partialFile = new File(directory, file.getName() + ".part");
+
+        try (
+            InputStream inputStream = connection.getInputStream();
+            OutputStream outputStream = new FileOutputStream(partialFile)
+        ) {
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } catch (IOException ex) {
+            partialFile.delete();
+
+            throw ex;
+        } finally {
+            connection.disconnect();
+        }
+
+        if (!partialFile.renameTo(file)) {
+            throw new IOException("Could not save the downloaded sound effect");
+        }
+
+        trimDownloads(directory, file);
+
+        return file;
+    }
+
+    /**
+     * Deletes the least recently used downloads until the rest fit in {@link #MAX_DOWNLOAD_BYTES}.
+     * The one just downloaded is kept, whatever its size.
+     */
+    private static void trimDownloads(File directory, File keep) {
+        File[] files = directory.listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+        long totalBytes = 0;
+
+        for (File file : files) {
+            // Downloads still in progress
+            if (file.getName().endsWith(".part")) {
+                continue;
+            }
+
+            long length = file.length();
+            totalBytes += length;
+
+            if (totalBytes > MAX_DOWNLOAD_BYTES && !file.equals(keep) && file.delete()) {
+                totalBytes -= length;
+            }
+        }
+    }
+
+    private static String sha256(String value) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+            value.getBytes(StandardCharsets.UTF_8)
+        );
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+
+        return hex.toString();
+    }
+}
@@ -0,0 +1,112 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.MediaMetadata;
+import androidx.media3.common.Metadata;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.extractor.metadata.icy.IcyInfo;
+import androidx.media3.extractor.metadata.id3.TextInformationFrame;
+import java.util.function.Supplier;
+
+/**
+ * Reads the track info carried in the stream itself, Shoutcast/Icecast `StreamTitle`s and
+ * ID3 text frames (e.g. in HLS), and applies it to the audio source's metadata when it
+ * changes. Only ExoPlayer instances get `onMetadata`, so for the notification source this is
+ * attached to the media session's player by the service.
+ *
+ * The Icecast station name (`icy-name`) is a response header, not timed metadata, so it never
+ * reaches `onMetadata`. ExoPlayer puts it in the track format, from where it ends up as
+ * {@link MediaMetadata#station}.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class StreamMetadataListener implements Player.Listener {
+
+    private static final String ICY_TITLE_SEPARATOR = " - ";
+
+    private final Supplier<AudioSource> audioSourceSupplier;
+
+    public StreamMetadataListener(Supplier<AudioSource> audioSourceSupplier) {
+        this.audioSourceSupplier = audioSourceSupplier;
+    }
+
+    @Override
+    public void onMetadata(Metadata metadata) {
+        AudioSource audioSource = audioSourceSupplier.get();
+
+        if (audioSource == null || !audioSource.audioMetadata.fromStream) {
+            return;
+        }
+
+        String albumTitle = null;
+        String artistName = null;
+        String songTitle = null;
+
+        for (int i = 0; i < metadata.length(); i++) {
+            Metadata.Entry entry = metadata.get(i);
+
+            if (entry instanceof IcyInfo) {
+                String streamTitle = ((IcyInfo) entry).title;
+
+                if (streamTitle == null || streamTitle.trim().isEmpty()) {
+                    continue;
+                }
+
+                // Usually "Artist - Title", but there's no standard
+                int separatorIndex = streamTitle.indexOf(ICY_TITLE_SEPARATOR);
+
+                if (separatorIndex > 0) {
+                    artistName = streamTitle.substring(0, separatorIndex).trim();
+                    songTitle = streamTitle
+                        .substring(separatorIndex + ICY_TITLE_SEPARATOR.length())
+                        .trim();
+                } else {
+                    songTitle = streamTitle.trim();
+                }
+            } else if (entry instanceof TextInformationFrame) {
+                TextInformationFrame frame = (TextInformationFrame) entry;
+
+                if (frame.values.isEmpty()) {
+                    continue;
+                }
+
+                switch (frame.id) {
+                    case "TIT2":
+                        songTitle = frame.values.get(0);
+                        break;
+                    case "TPE1":
+                        artistName = frame.values.get(0);
+                        break;
+                    case "TALB":
+                        albumTitle = frame.values.get(0);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        if (albumTitle == null && artistName == null && songTitle == null) {
+            return;
+        }
+
+        audioSource.audioMetadata.applyStreamUpdate(albumTitle, artistName, songTitle);
+    }
+
+    @Override
+    public void onMediaMetadataChanged(MediaMetadata mediaMetadata) {
+        AudioSource audioSource = audioSourceSupplier.get();
+
+        if (audioSource == null || !audioSource.audioMetadata.fromStream) {
+            return;
+        }
+
+        CharSequence stationName = mediaMetadata.station;
+
+        if (stationName == null || stationName.toString().trim().isEmpty()) {
+            return;
+        }
+
+        audioSource.audioMetadata.applyStreamUpdate(stationName.toString().trim(), null, null);
+    }
+}
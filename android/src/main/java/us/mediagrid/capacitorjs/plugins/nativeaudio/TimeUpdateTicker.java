@@ -0,0 +1,160 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.PluginCall;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Drives the `onTimeUpdate` callback. Ticks at the shortest `timeUpdateInterval` of the
+ * playing audio sources and sends every source that is due in a single event per tick.
+ * Only runs while a listener is registered and something is playing.
+ *
+ * Runs on the main thread. {@link #refresh} can be called from any thread, e.g. from the
+ * events of players on the audio thread, see {@link AudioThread}.
+ */
+public class TimeUpdateTicker {
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable tickRunner = this::tick;
+    private final AudioPlayerPlugin plugin;
+    // The playing audio sources
+    private final Supplier<List<AudioSource>> audioSourcesSupplier;
+    private final HashMap<String, Long> lastUpdateAtMs = new HashMap<>();
+    private final HashMap<Looper, Handler> playerHandlers = new HashMap<>();
+
+    private String callbackId = null;
+    private long tickIntervalMs = 0;
+
+    public TimeUpdateTicker(
+        AudioPlayerPlugin plugin,
+        Supplier<List<AudioSource>> audioSourcesSupplier
+    ) {
+        this.plugin = plugin;
+        this.audioSourcesSupplier = audioSourcesSupplier;
+    }
+
+    public void setCallbackId(String callbackId) {
+        this.callbackId = callbackId;
+        refresh();
+    }
+
+    /**
+     * Starts, stops or re-times the ticks. Call when an audio source starts or stops playing.
+     */
+    public void refresh() {
+        if (Looper.myLooper() != handler.getLooper()) {
+            handler.post(this::refresh);
+
+            return;
+        }
+
+        long intervalMs = callbackId == null ? 0 : getShortestPlayingIntervalMs();
+
+        if (intervalMs == tickIntervalMs) {
+            return;
+        }
+
+        handler.removeCallbacks(tickRunner);
+        tickIntervalMs = intervalMs;
+
+        if (intervalMs > 0) {
+            handler.post(tickRunner);
+        } else {
+            lastUpdateAtMs.clear();
+        }
+    }
+
+    public void stop() {
+        handler.removeCallbacks(tickRunner);
+        tickIntervalMs = 0;
+        lastUpdateAtMs.clear();
+    }
+
+    private void tick() {
+        long nowMs = SystemClock.elapsedRealtime();
+        JSArray updates = new JSArray();
+
+        HashSet<String> tickingIds = new HashSet<>();
+
+        for (AudioSource audioSource : audioSourcesSupplier.get()) {
+            if (!isTicking(audioSource)) {
+                continue;
+            }
+
+            tickingIds.add(audioSource.id);
+
+            Long lastAtMs = lastUpdateAtMs.get(audioSource.id);
+
+            // Half a tick of slack so a source isn't pushed to the next tick by a late frame
+            if (
+                lastAtMs != null &&
+                nowMs - lastAtMs < audioSource.timeUpdateIntervalMs - tickIntervalMs / 2
+            ) {
+                continue;
+            }
+
+            // There's no event for the buffered position moving, refresh it while ticking.
+            // A player on another thread is refreshed for the next tick.
+            Looper looper = audioSource.getApplicationLooper();
+
+            if (looper.isCurrentThread()) {
+                audioSource.updateSnapshot();
+            } else {
+                playerHandlers
+                    .computeIfAbsent(looper, Handler::new)
+                    .post(audioSource::updateSnapshot);
+            }
+
+            lastUpdateAtMs.put(audioSource.id, nowMs);
+            updates.put(
+                new JSObject()
+                    .put("audioId", audioSource.id)
+                    .put("currentTime", audioSource.getCurrentTime())
+                    .put("duration", audioSource.getDuration())
+            );
+        }
+
+        lastUpdateAtMs.keySet().retainAll(tickingIds);
+
+        if (updates.length() > 0 && callbackId != null) {
+            PluginCall call = plugin.getBridge().getSavedCall(callbackId);
+
+            if (call != null) {
+                call.resolve(new JSObject().put("updates", updates));
+            }
+        }
+
+        if (tickIntervalMs > 0) {
+            handler.postDelayed(tickRunner, tickIntervalMs);
+        }
+    }
+
+    private long getShortestPlayingIntervalMs() {
+        long intervalMs = 0;
+
+        for (AudioSource audioSource : audioSourcesSupplier.get()) {
+            if (isTicking(audioSource)) {
+                intervalMs = intervalMs == 0
+                    ? audioSource.timeUpdateIntervalMs
+                    : Math.min(intervalMs, audioSource.timeUpdateIntervalMs);
+            }
+        }
+
+        return intervalMs;
+    }
+
+    private static boolean isTicking(AudioSource audioSource) {
+        return (
+            audioSource.timeUpdateIntervalMs > 0 &&
+            audioSource.isInitialized() &&
+            audioSource.isPlaying()
+        );
+    }
+}
@@ -0,0 +1,8 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio.exceptions;
+
+public class InvalidBatchException extends Exception {
+
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,158 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import us.mediagrid.capacitorjs.plugins.nativeaudio.exceptions.AudioSourceAlreadyExistsException;
+
+public class AudioSourcesStressTest {
+
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 2000;
+
+    @Test
+    public void createDestroyAndLookupFromManyThreads() throws Exception {
+        AudioSources audioSources = new AudioSources();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicInteger notificationAdds = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                String id = thread + "-" + i;
+                boolean useForNotification = i % 50 == 0;
+                AudioSource source = createSource(id, useForNotification, i % 3 == 0);
+
+                try {
+                    audioSources.add(source);
+
+                    if (useForNotification) {
+                        notificationAdds.incrementAndGet();
+                    }
+                } catch (AudioSourceAlreadyExistsException ex) {
+                    // Another thread holds the notification slot
+                    assertTrue(useForNotification);
+
+                    continue;
+                }
+
+                assertSame(source, audioSources.get(id));
+                assertTrue(audioSources.exists(id));
+
+                if (i % 2 == 0) {
+                    source.setIsPlaying();
+                    assertTrue(audioSources.withStatus("playing").contains(source));
+                    source.setIsPaused();
+                }
+
+                AudioSource notification = audioSources.forNotification();
+                assertTrue(notification == null || notification.useForNotification);
+
+                for (AudioSource other : audioSources.all()) {
+                    assertNotNull(other.id);
+                }
+
+                audioSources.backgroundMusic();
+                audioSources.count();
+
+                assertTrue(audioSources.remove(id));
+                assertFalse(audioSources.exists(id));
+                assertFalse(audioSources.remove(id));
+            }
+        }, errors);
+
+        if (!errors.isEmpty()) {
+            throw new AssertionError(errors.peek());
+        }
+
+        assertTrue(notificationAdds.get() > 0);
+        assertEquals(0, audioSources.count());
+        assertTrue(audioSources.all().isEmpty());
+        assertFalse(audioSources.hasNotification());
+        assertTrue(audioSources.backgroundMusic().isEmpty());
+        assertTrue(audioSources.withStatus("playing").isEmpty());
+        assertTrue(audioSources.withStatus("paused").isEmpty());
+        assertTrue(audioSources.withStatus("stopped").isEmpty());
+    }
+
+    @Test
+    public void onlyOneNotificationSourceWins() throws Exception {
+        AudioSources audioSources = new AudioSources();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicInteger added = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            try {
+                audioSources.add(createSource("notification-" + thread, true, false));
+                added.incrementAndGet();
+            } catch (AudioSourceAlreadyExistsException ex) {
+                // Expected for all but one
+            }
+        }, errors);
+
+        if (!errors.isEmpty()) {
+            throw new AssertionError(errors.peek());
+        }
+
+        assertEquals(1, added.get());
+        assertEquals(1, audioSources.count());
+        assertSame(audioSources.all().get(0), audioSources.forNotification());
+    }
+
+    @Test(expected = AudioSourceAlreadyExistsException.class)
+    public void duplicateIdIsRejected() throws Exception {
+        AudioSources audioSources = new AudioSources();
+
+        audioSources.add(createSource("a", false, false));
+        audioSources.add(createSource("a", false, false));
+    }
+
+    private interface ThreadBody {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(ThreadBody body, ConcurrentLinkedQueue<Throwable> errors)
+        throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < THREADS; i++) {
+            int thread = i;
+
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    body.run(thread);
+                } catch (Throwable ex) {
+                    errors.add(ex);
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+    }
+
+    private static AudioSource createSource(
+        String id,
+        boolean useForNotification,
+        boolean isBackgroundMusic
+    ) {
+        return new AudioSource(
+            null,
+            id,
+            "https://example.com/" + id + ".mp3",
+            new AudioMetadata(null, null, null, null, null, null),
+            useForNotification,
+            isBackgroundMusic,
+            false
+        );
+    }
+}
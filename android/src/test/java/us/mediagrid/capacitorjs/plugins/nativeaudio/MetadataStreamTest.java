@@ -0,0 +1,226 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.getcapacitor.PluginConfig;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The streaming metadata modes against a {@link StandInServer}: reading events, reconnecting
+ * with `Last-Event-ID` and falling back to polling when the server doesn't stream.
+ */
+public class MetadataStreamTest {
+
+    private static final long TIMEOUT_MS = 15 * 1000;
+
+    private StandInServer server;
+    private MetadataPoller poller;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StandInServer();
+        server.start();
+
+        poller = newPoller(newPluginConfig());
+    }
+
+    @After
+    public void tearDown() {
+        poller.shutdown();
+        server.stop();
+    }
+
+    @Test
+    public void streamAppliesEventsAndResumesFromTheLastEventId() {
+        server.setEventsPerConnection(3);
+
+        AtomicInteger updates = new AtomicInteger();
+        AudioMetadata subscriber = newSubscriber(server.url("/sse/station"), updates);
+        MetadataFeed feed = new MetadataFeed(
+            subscriber.updateUrl,
+            MetadataFeed.Mode.SSE,
+            new MetadataUpdateSchedule(15000, 60000, 300000, 0)
+        );
+        feed.subscribers.add(subscriber);
+        feed.streamThread = Thread.currentThread();
+
+        MetadataPoller.Stats stats = new MetadataPoller.Stats();
+
+        // The stand-in closes the stream after its events, like a dropped connection
+        assertEquals(MetadataFeed.Result.UNCHANGED, feed.stream(stats));
+        assertEquals(3, updates.get());
+        assertEquals("station song 2", subscriber.songTitle);
+        assertEquals(0, feed.getStreamRetryMs());
+
+        assertEquals(MetadataFeed.Result.UNCHANGED, feed.stream(stats));
+        assertEquals(6, updates.get());
+        assertEquals("station song 5", subscriber.songTitle);
+
+        assertEquals(2, server.getLastEventIds().size());
+        assertEquals("", server.getLastEventIds().get(0));
+        assertEquals("2", server.getLastEventIds().get(1));
+        assertEquals(6, stats.streamEventCount.get());
+        assertEquals(2, stats.streamConnectCount.get());
+    }
+
+    @Test
+    public void pollerReconnectsWithTheLastEventId() throws Exception {
+        server.setEventsPerConnection(2);
+
+        AtomicInteger updates = new AtomicInteger();
+        AudioMetadata subscriber = newSubscriber(server.url("/sse/station"), updates);
+        subscriber.updateMode = MetadataFeed.Mode.SSE;
+        poller.subscribe(subscriber);
+
+        waitFor(() -> server.getLastEventIds().size() >= 3);
+
+        assertEquals("", server.getLastEventIds().get(0));
+        assertEquals("1", server.getLastEventIds().get(1));
+        assertEquals("3", server.getLastEventIds().get(2));
+        assertTrue(updates.get() >= 4);
+        assertEquals(0, poller.getStats().getLong("streamFallbacks"));
+        assertEquals(1, poller.getStats().getInt("streams"));
+
+        poller.unsubscribe(subscriber);
+    }
+
+    @Test
+    public void pollerFallsBackToPollingWithoutAnEventStream() throws Exception {
+        server.setEventStreamSupported(false);
+
+        AtomicInteger updates = new AtomicInteger();
+        AudioMetadata subscriber = newSubscriber(server.url("/sse/station"), updates);
+        subscriber.updateMode = MetadataFeed.Mode.SSE;
+        poller.subscribe(subscriber);
+
+        waitFor(() -> updates.get() > 0);
+
+        assertTrue(server.getLastEventIds().isEmpty());
+        assertEquals("station song 0", subscriber.songTitle);
+        assertEquals(1, poller.getStats().getLong("streamFallbacks"));
+        assertEquals(0, poller.getStats().getInt("streams"));
+
+        poller.unsubscribe(subscriber);
+    }
+
+    @Test
+    public void pollerFallsBackToPollingWhenLongPollsAreNotHeld() throws Exception {
+        // Same metadata on every request, answered right away with a 304
+        server.setRequestsPerSong(1000);
+
+        AtomicInteger updates = new AtomicInteger();
+        AudioMetadata subscriber = newSubscriber(server.url("/metadata/station"), updates);
+        subscriber.updateMode = MetadataFeed.Mode.LONG_POLL;
+        poller.subscribe(subscriber);
+
+        waitFor(() -> poller.getStats().optLong("streamFallbacks") == 1);
+
+        assertEquals(1, updates.get());
+        assertEquals(0, poller.getStats().getInt("streams"));
+
+        poller.unsubscribe(subscriber);
+    }
+
+    @Test
+    public void pollerQueuesStreamsBeyondTheCap() throws Exception {
+        server.setEventsPerConnection(1);
+
+        PluginConfig pluginConfig = newPluginConfig();
+        when(pluginConfig.getInt(eq("metadataMaxStreams"), anyInt())).thenReturn(1);
+        poller.shutdown();
+        poller = newPoller(pluginConfig);
+
+        AtomicInteger firstUpdates = new AtomicInteger();
+        AudioMetadata first = newSubscriber(server.url("/sse/first"), firstUpdates);
+        first.updateMode = MetadataFeed.Mode.SSE;
+        AtomicInteger secondUpdates = new AtomicInteger();
+        AudioMetadata second = newSubscriber(server.url("/sse/second"), secondUpdates);
+        second.updateMode = MetadataFeed.Mode.SSE;
+
+        poller.subscribe(first);
+        poller.subscribe(second);
+
+        assertEquals(1, poller.getStats().getInt("activeStreams"));
+        assertEquals(1, poller.getStats().getInt("queuedStreams"));
+        assertEquals(1, poller.getStats().getInt("streams"));
+
+        waitFor(() -> firstUpdates.get() > 0);
+        assertEquals(0, secondUpdates.get());
+
+        // The waiting feed takes over the freed slot
+        poller.unsubscribe(first);
+
+        waitFor(() -> secondUpdates.get() > 0);
+
+        assertEquals("second song 0", second.songTitle);
+        assertEquals(1, poller.getStats().getInt("activeStreams"));
+        assertEquals(0, poller.getStats().getInt("queuedStreams"));
+        assertEquals(0, poller.getStats().getLong("streamFallbacks"));
+
+        poller.unsubscribe(second);
+    }
+
+    @Test
+    public void longPollAppliesEachHeldResponse() {
+        server.setLongPollHoldMs(200);
+
+        AtomicInteger updates = new AtomicInteger();
+        AudioMetadata subscriber = newSubscriber(server.url("/longpoll/station"), updates);
+        MetadataFeed feed = new MetadataFeed(
+            subscriber.updateUrl,
+            MetadataFeed.Mode.LONG_POLL,
+            new MetadataUpdateSchedule(15000, 60000, 300000, 0)
+        );
+        feed.subscribers.add(subscriber);
+        feed.streamThread = Thread.currentThread();
+
+        MetadataPoller.Stats stats = new MetadataPoller.Stats();
+
+        assertEquals(MetadataFeed.Result.UPDATED, feed.longPoll(stats));
+        assertEquals(MetadataFeed.Result.UPDATED, feed.longPoll(stats));
+        assertEquals(2, updates.get());
+        assertEquals("station song 2", subscriber.songTitle);
+    }
+
+    // Every option at its default
+    private static PluginConfig newPluginConfig() {
+        PluginConfig pluginConfig = mock(PluginConfig.class);
+        when(pluginConfig.getInt(anyString(), anyInt())).thenAnswer(invocation ->
+            invocation.getArgument(1)
+        );
+
+        return pluginConfig;
+    }
+
+    private static MetadataPoller newPoller(PluginConfig pluginConfig) {
+        return new MetadataPoller(
+            new AudioPlayerConfig(pluginConfig),
+            new ScheduledThreadPoolExecutor(1)
+        );
+    }
+
+    private static AudioMetadata newSubscriber(String updateUrl, AtomicInteger updates) {
+        return new AudioMetadata(null, null, null, null, updateUrl, 15).setUpdateCallBack(
+            updates::incrementAndGet
+        );
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadlineMs = System.currentTimeMillis() + TIMEOUT_MS;
+
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting", System.currentTimeMillis() < deadlineMs);
+            Thread.sleep(20);
+        }
+    }
+}
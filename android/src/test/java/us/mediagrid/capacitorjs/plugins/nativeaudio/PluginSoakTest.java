@@ -0,0 +1,406 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.ComponentName;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Looper;
+import android.os.SystemClock;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.media3.session.MediaSessionService;
+import androidx.test.core.app.ApplicationProvider;
+import com.getcapacitor.Bridge;
+import com.getcapacitor.CapConfig;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.MessageHandler;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginConfig;
+import com.getcapacitor.PluginHandle;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ServiceController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.shadows.ShadowSystemClock;
+
+/**
+ * Soak/load harness: drives {@link AudioPlayerPlugin} through create, initialize, play and
+ * destroy cycles while many metadata subscribers poll a {@link StandInServer}, over hours of
+ * virtual time on the shadowed main looper.
+ *
+ * Reports thread counts, heap use, main-thread task durations and request volume, printed and
+ * written to `build/reports/soak/results.json`. Skipped unless `-PsoakHours` is given, e.g.
+ * `./gradlew testDebugUnitTest -PsoakHours=2`, `-PsoakCycles` and `-PsoakPollers` tune it.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PluginSoakTest {
+
+    private static final double SIMULATED_HOURS = Double.parseDouble(
+        System.getProperty("soakHours", "2")
+    );
+    private static final int CYCLES = Integer.getInteger("soakCycles", 200);
+    private static final int POLLERS = Integer.getInteger("soakPollers", 50);
+    private static final int FEEDS = 10;
+
+    private static final long STEP_MS = 1000;
+    private static final long SAMPLE_INTERVAL_MS = 10 * 60 * 1000;
+    private static final long REQUEST_TIMEOUT_MS = 30 * 1000;
+    // Allowed growth over the first sample, for threads that start lazily (loaders, pools)
+    private static final int MAX_THREAD_GROWTH = 16;
+
+    private final HashMap<String, PluginCall> savedCalls = new HashMap<>();
+    private final AtomicLong resolvedCalls = new AtomicLong();
+    private final AtomicLong rejectedCalls = new AtomicLong();
+    private final MainThreadSliceStats mainThreadTasks = new MainThreadSliceStats("Soak task");
+    private final JSArray samples = new JSArray();
+    private final List<AudioMetadata> pollers = new ArrayList<>();
+
+    private StandInServer server;
+    private ServiceController<AudioPlayerService> serviceController;
+    private MessageHandler messageHandler;
+    private VirtualClockExecutor pollerExecutor;
+    private SoakPlugin plugin;
+    private long startedAtMs;
+    private int nextCallbackId = 0;
+
+    private static class SoakPlugin extends AudioPlayerPlugin {
+
+        MetadataPoller virtualClockPoller = null;
+
+        @Override
+        public MetadataPoller getMetadataPoller() {
+            return virtualClockPoller != null ? virtualClockPoller : super.getMetadataPoller();
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        // Minutes of real time even with the defaults, too long for every test run
+        Assume.assumeTrue(System.getProperty("soakHours") != null);
+
+        server = new StandInServer();
+        server.start();
+
+        Application application = ApplicationProvider.getApplicationContext();
+        ComponentName serviceName = new ComponentName(application, AudioPlayerService.class);
+
+        // The app's manifest declares the service, this library's doesn't
+        shadowOf(application.getPackageManager()).addServiceIfNotPresent(serviceName);
+        shadowOf(application.getPackageManager()).addIntentFilterForService(
+            serviceName,
+            new IntentFilter(MediaSessionService.SERVICE_INTERFACE)
+        );
+
+        Intent bindIntent = new Intent(MediaSessionService.SERVICE_INTERFACE).setComponent(
+            serviceName
+        );
+        serviceController = Robolectric.buildService(
+            AudioPlayerService.class,
+            bindIntent
+        ).create();
+        shadowOf(application).setComponentNameAndServiceForBindService(
+            serviceName,
+            serviceController.get().onBind(bindIntent)
+        );
+
+        plugin = new SoakPlugin();
+        plugin.setBridge(mockBridge(application));
+        plugin.setPluginHandle(mockPluginHandle());
+        plugin.load();
+
+        AudioPlayerConfig config = plugin.getAudioPlayerConfig();
+        pollerExecutor = new VirtualClockExecutor(config.getMetadataPollerThreads());
+        plugin.virtualClockPoller = new MetadataPoller(config, pollerExecutor);
+
+        startedAtMs = SystemClock.uptimeMillis();
+    }
+
+    @After
+    public void tearDown() {
+        for (AudioMetadata poller : pollers) {
+            poller.stopUpdater();
+        }
+
+        if (plugin != null) {
+            plugin.handleOnDestroy();
+            plugin.virtualClockPoller.shutdown();
+        }
+
+        if (serviceController != null) {
+            serviceController.destroy();
+        }
+
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void soak() throws Exception {
+        long durationMs = (long) (SIMULATED_HOURS * 60 * 60 * 1000);
+        long cycleMs = Math.max(4 * STEP_MS, durationMs / CYCLES);
+
+        server.setLatencyMs(20);
+        server.setServerErrorRate(0.05);
+        server.setSlowBodyChunkDelayMs(2);
+
+        // The notification source has to exist first and stays for the whole run
+        plugin.create(call("create", sourceParams("notification", true, false)));
+        advance(STEP_MS);
+        plugin.initialize(call("initialize", audioIdParams("notification")));
+        advance(STEP_MS);
+
+        for (int i = 0; i < POLLERS; i++) {
+            AudioMetadata poller = new AudioMetadata(
+                null,
+                null,
+                null,
+                null,
+                server.url("/metadata/feed-" + (i % FEEDS)),
+                15
+            );
+            poller.setPluginOwner(plugin).startUpdater();
+            pollers.add(poller);
+        }
+
+        sample();
+        long nextSampleAtMs = elapsedMs() + SAMPLE_INTERVAL_MS;
+
+        for (int cycle = 0; cycle < CYCLES || elapsedMs() < durationMs; cycle++) {
+            String audioId = "cycle-" + cycle;
+
+            plugin.create(call("create", sourceParams(audioId, false, cycle % 4 == 0)));
+            advance(STEP_MS);
+            plugin.initialize(call("initialize", audioIdParams(audioId)));
+            advance(STEP_MS);
+            plugin.play(call("play", audioIdParams(audioId)));
+            advance(cycleMs - 3 * STEP_MS);
+            plugin.destroy(call("destroy", audioIdParams(audioId)));
+            advance(STEP_MS);
+
+            if (elapsedMs() >= nextSampleAtMs) {
+                sample();
+                nextSampleAtMs += SAMPLE_INTERVAL_MS;
+            }
+        }
+
+        sample();
+        JSObject report = writeReport();
+
+        assertEquals(report.toString(2), 0, rejectedCalls.get());
+        assertTrue(server.getMetadataRequests() > 0);
+        assertTrue(server.getMediaRequests() > 0);
+
+        JSObject first = JSObject.fromJSONObject(samples.getJSONObject(0));
+        JSObject last = JSObject.fromJSONObject(samples.getJSONObject(samples.length() - 1));
+
+        assertTrue(
+            "Threads leaked: " + report.toString(2),
+            last.getInt("threads") - first.getInt("threads") <= MAX_THREAD_GROWTH
+        );
+    }
+
+    /**
+     * Moves the virtual clock forward a step at a time, running what the main looper has due
+     * and waiting for the metadata requests that came due to finish in real time.
+     */
+    private void advance(long ms) throws InterruptedException {
+        for (long advancedMs = 0; advancedMs < ms; advancedMs += STEP_MS) {
+            ShadowSystemClock.advanceBy(Duration.ofMillis(Math.min(STEP_MS, ms - advancedMs)));
+            runMainLooperTasks();
+
+            assertTrue(
+                "Metadata requests didn't finish",
+                pollerExecutor.awaitQuiescence(REQUEST_TIMEOUT_MS)
+            );
+            runMainLooperTasks();
+        }
+    }
+
+    private void runMainLooperTasks() {
+        ShadowLooper mainLooper = shadowOf(Looper.getMainLooper());
+
+        while (!mainLooper.isIdle()) {
+            long startNanos = wallClockNanos();
+            mainLooper.runOneTask();
+            mainThreadTasks.record(wallClockNanos() - startNanos);
+        }
+    }
+
+    private void sample() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+
+        JSObject pollerStats = plugin.getMetadataPoller().getStats();
+
+        samples.put(
+            new JSObject()
+                .put("virtualMinutes", elapsedMs() / 60000)
+                .put("threads", ManagementFactory.getThreadMXBean().getThreadCount())
+                .put("heapUsedBytes", runtime.totalMemory() - runtime.freeMemory())
+                .put("metadataRequests", server.getMetadataRequests())
+                .put("mediaRequests", server.getMediaRequests())
+                .put("pollerFailures", pollerStats.getInteger("failures"))
+                .put("resolvedCalls", resolvedCalls.get())
+                .put("rejectedCalls", rejectedCalls.get())
+        );
+    }
+
+    private JSObject writeReport() throws Exception {
+        JSObject first = JSObject.fromJSONObject(samples.getJSONObject(0));
+        JSObject last = JSObject.fromJSONObject(samples.getJSONObject(samples.length() - 1));
+
+        JSObject report = new JSObject()
+            .put("virtualHours", elapsedMs() / (60 * 60 * 1000.0))
+            .put("cycles", CYCLES)
+            .put("pollers", POLLERS)
+            .put("threadGrowth", last.getInt("threads") - first.getInt("threads"))
+            .put(
+                "heapGrowthBytes",
+                last.getLong("heapUsedBytes") - first.getLong("heapUsedBytes")
+            )
+            .put("mainThreadTasks", mainThreadTasks.toJSObject())
+            .put(
+                "server",
+                new JSObject()
+                    .put("metadataRequests", server.getMetadataRequests())
+                    .put("notModified", server.getNotModifiedResponses())
+                    .put("mediaRequests", server.getMediaRequests())
+                    .put("injectedErrors", server.getInjectedErrors())
+                    .put("bytesSent", server.getBytesSent())
+            )
+            .put("poller", plugin.getMetadataPoller().getStats())
+            .put("samples", samples);
+
+        File reportFile = new File("build/reports/soak/results.json");
+        reportFile.getParentFile().mkdirs();
+
+        try (Writer writer = new FileWriter(reportFile)) {
+            writer.write(report.toString(2));
+        }
+
+        System.out.println(report.toString(2));
+
+        return report;
+    }
+
+    private long elapsedMs() {
+        return SystemClock.uptimeMillis() - startedAtMs;
+    }
+
+    // Real time, System.nanoTime() may be on the virtual clock inside the sandbox
+    private static long wallClockNanos() {
+        Instant now = Instant.now();
+
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    private JSObject sourceParams(
+        String audioId,
+        boolean useForNotification,
+        boolean withMetadata
+    ) {
+        JSObject params = new JSObject()
+            .put("audioId", audioId)
+            .put("audioSource", server.url("/media/" + audioId + ".wav"))
+            .put("friendlyTitle", audioId)
+            .put("useForNotification", useForNotification);
+
+        if (withMetadata) {
+            params
+                .put("metadataUpdateUrl", server.url("/metadata/" + audioId))
+                .put("metadataUpdateInterval", 15);
+        }
+
+        return params;
+    }
+
+    private JSObject audioIdParams(String audioId) {
+        return new JSObject().put("audioId", audioId);
+    }
+
+    private PluginCall call(String methodName, JSObject data) {
+        return new PluginCall(
+            messageHandler,
+            "AudioPlayer",
+            String.valueOf(++nextCallbackId),
+            methodName,
+            data
+        );
+    }
+
+    private Bridge mockBridge(Application application) {
+        // Every getX(key, default) falls back to its default
+        PluginConfig pluginConfig = mock(PluginConfig.class, invocation ->
+            invocation.getArguments().length == 2 ? invocation.<Object>getArgument(1) : null
+        );
+        CapConfig capConfig = mock(CapConfig.class);
+        when(capConfig.getPluginConfiguration(anyString())).thenReturn(pluginConfig);
+
+        // Attached but never created, it's only the context the MediaController binds with
+        AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).get();
+
+        Bridge bridge = mock(Bridge.class);
+        when(bridge.getContext()).thenReturn(application);
+        when(bridge.getActivity()).thenReturn(activity);
+        when(bridge.getConfig()).thenReturn(capConfig);
+        doAnswer(invocation -> {
+            PluginCall call = invocation.getArgument(0);
+            savedCalls.put(call.getCallbackId(), call);
+
+            return null;
+        })
+            .when(bridge)
+            .saveCall(any());
+        when(bridge.getSavedCall(anyString())).thenAnswer(invocation ->
+            savedCalls.get(invocation.<String>getArgument(0))
+        );
+
+        messageHandler = mock(MessageHandler.class);
+        doAnswer(invocation -> {
+            if (invocation.getArgument(2) != null) {
+                rejectedCalls.incrementAndGet();
+            } else {
+                resolvedCalls.incrementAndGet();
+            }
+
+            return null;
+        })
+            .when(messageHandler)
+            .sendResponseMessage(any(), any(), any());
+
+        return bridge;
+    }
+
+    private PluginHandle mockPluginHandle() {
+        PluginHandle handle = mock(PluginHandle.class);
+        when(handle.getId()).thenReturn("AudioPlayer");
+
+        return handle;
+    }
+}
@@ -0,0 +1,107 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class ServerSentEventParserTest {
+
+    private final List<ServerSentEventParser.Event> events = new ArrayList<>();
+    private final List<Long> retries = new ArrayList<>();
+
+    private ServerSentEventParser newParser(String lastEventId) {
+        return new ServerSentEventParser(
+            lastEventId,
+            new ServerSentEventParser.Listener() {
+                @Override
+                public void onEvent(ServerSentEventParser.Event event) {
+                    events.add(event);
+                }
+
+                @Override
+                public void onRetry(long retryMs) {
+                    retries.add(retryMs);
+                }
+            }
+        );
+    }
+
+    private static void parse(ServerSentEventParser parser, String... lines) {
+        for (String line : lines) {
+            parser.parseLine(line);
+        }
+    }
+
+    @Test
+    public void joinsMultiLineDataWithLineFeeds() {
+        parse(newParser(null), "data: {\"song_title\":", "data:  \"Song\"}", "data", "");
+
+        assertEquals(1, events.size());
+        assertEquals("{\"song_title\":\n \"Song\"}\n", events.get(0).data);
+        assertEquals("message", events.get(0).type);
+        assertNull(events.get(0).id);
+    }
+
+    @Test
+    public void usesTheEventTypeForOneEventOnly() {
+        parse(newParser(null), "event: metadata", "data: first", "", "data: second", "");
+
+        assertEquals(2, events.size());
+        assertEquals("metadata", events.get(0).type);
+        assertEquals("message", events.get(1).type);
+    }
+
+    @Test
+    public void doesNotDispatchWithoutData() {
+        parse(newParser(null), "event: metadata", "id: 1", "", "");
+
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void keepsTheLastEventIdAcrossEvents() {
+        ServerSentEventParser parser = newParser("4");
+
+        parse(parser, "data: resumed", "", "id: 5", "data: next", "", "data: same id", "");
+
+        assertEquals("4", events.get(0).id);
+        assertEquals("5", events.get(1).id);
+        assertEquals("5", events.get(2).id);
+        assertEquals("5", parser.getLastEventId());
+    }
+
+    @Test
+    public void ignoresAnIdContainingNull() {
+        ServerSentEventParser parser = newParser(null);
+
+        parse(parser, "id: 1", "data: first", "", "id: 2\0", "data: second", "");
+
+        assertEquals("1", events.get(1).id);
+        assertEquals("1", parser.getLastEventId());
+    }
+
+    @Test
+    public void reportsOnlyValidRetries() {
+        parse(
+            newParser(null),
+            "retry: 2500",
+            "retry: soon",
+            "retry: -1",
+            "retry:",
+            "retry: 99999999999999999999"
+        );
+
+        assertEquals(List.of(2500L), retries);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void ignoresCommentsAndUnknownFields() {
+        parse(newParser(null), ": heartbeat", ":data: not data", "foo: bar", "data: kept", "");
+
+        assertEquals(1, events.size());
+        assertEquals("kept", events.get(0).data);
+    }
+}
@@ -0,0 +1,328 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for a station's metadata and media servers, with fault injection.
+ *
+ * `/metadata/<feed>` answers like a metadata update URL, with an `ETag` so unchanged
+ * metadata gets a 304. The song changes every {@link #setRequestsPerSong} requests of a feed.
+ * `/media/<name>.wav` serves a short clip of silence.
+ *
+ * `/sse/<feed>` is a Server-Sent Events stream that sends {@link #setEventsPerConnection}
+ * numbered songs and then closes, so the client has to reconnect. It picks up after the
+ * `Last-Event-ID` the client sends. With {@link #setEventStreamSupported} off it answers with
+ * plain JSON instead, like a server that doesn't stream. `/longpoll/<feed>` holds each request
+ * for {@link #setLongPollHoldMs} and then answers with the next song.
+ *
+ * Faults apply to every request: added latency, a rate of 503 responses and bodies that
+ * trickle out in small chunks. They run on the server's threads in real time.
+ */
+public class StandInServer {
+
+    private static final int SAMPLE_RATE = 8000;
+    private static final int SLOW_BODY_CHUNK_BYTES = 256;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final byte[] mediaBody = buildWav(SAMPLE_RATE);
+
+    private final AtomicLong metadataRequests = new AtomicLong();
+    private final AtomicLong notModifiedResponses = new AtomicLong();
+    private final AtomicLong mediaRequests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong longPollRequests = new AtomicLong();
+    // The `Last-Event-ID` of every stream connection, an empty string when there was none
+    private final List<String> lastEventIds = new CopyOnWriteArrayList<>();
+
+    private volatile long latencyMs = 0;
+    private volatile double serverErrorRate = 0;
+    private volatile long slowBodyChunkDelayMs = 0;
+    private volatile long requestsPerSong = 4;
+    private volatile boolean eventStreamSupported = true;
+    private volatile int eventsPerConnection = 2;
+    private volatile long longPollHoldMs = 0;
+
+    public StandInServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/metadata/", this::handleMetadata);
+        server.createContext("/media/", this::handleMedia);
+        server.createContext("/sse/", this::handleEventStream);
+        server.createContext("/longpoll/", this::handleLongPoll);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String url(String path) {
+        return String.format("http://127.0.0.1:%d%s", server.getAddress().getPort(), path);
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    /**
+     * @param serverErrorRate Fraction of requests answered with a 503, from 0 to 1
+     */
+    public void setServerErrorRate(double serverErrorRate) {
+        this.serverErrorRate = serverErrorRate;
+    }
+
+    /**
+     * @param chunkDelayMs Pause between chunks of the body, 0 sends it in one go
+     */
+    public void setSlowBodyChunkDelayMs(long chunkDelayMs) {
+        this.slowBodyChunkDelayMs = chunkDelayMs;
+    }
+
+    public void setRequestsPerSong(long requestsPerSong) {
+        this.requestsPerSong = Math.max(1, requestsPerSong);
+    }
+
+    public void setEventStreamSupported(boolean eventStreamSupported) {
+        this.eventStreamSupported = eventStreamSupported;
+    }
+
+    public void setEventsPerConnection(int eventsPerConnection) {
+        this.eventsPerConnection = Math.max(1, eventsPerConnection);
+    }
+
+    public void setLongPollHoldMs(long longPollHoldMs) {
+        this.longPollHoldMs = longPollHoldMs;
+    }
+
+    public long getMetadataRequests() {
+        return metadataRequests.get();
+    }
+
+    public long getMediaRequests() {
+        return mediaRequests.get();
+    }
+
+    public long getNotModifiedResponses() {
+        return notModifiedResponses.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public long getLongPollRequests() {
+        return longPollRequests.get();
+    }
+
+    public List<String> getLastEventIds() {
+        return lastEventIds;
+    }
+
+    private void handleMetadata(HttpExchange exchange) throws IOException {
+        long request = metadataRequests.incrementAndGet();
+
+        try {
+            if (injectFaults(exchange)) {
+                return;
+            }
+
+            // Every feed moves through the same playlist at its own pace, close enough for load
+            String feed = exchange.getRequestURI().getPath().substring("/metadata/".length());
+            long song = request / requestsPerSong;
+            String etag = String.format("\"%s-%d\"", feed, song);
+
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.sendResponseHeaders(304, -1);
+
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("ETag", etag);
+            sendBody(exchange, buildMetadata(feed, song).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleEventStream(HttpExchange exchange) throws IOException {
+        try {
+            if (injectFaults(exchange)) {
+                return;
+            }
+
+            String feed = exchange.getRequestURI().getPath().substring("/sse/".length());
+
+            if (!eventStreamSupported) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                sendBody(exchange, buildMetadata(feed, 0).getBytes(StandardCharsets.UTF_8));
+
+                return;
+            }
+
+            String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+            lastEventIds.add(lastEventId == null ? "" : lastEventId);
+
+            long song = 0;
+
+            try {
+                song = lastEventId == null ? 0 : Long.parseLong(lastEventId) + 1;
+            } catch (NumberFormatException ex) {
+                // Unknown ID, start over
+            }
+
+            StringBuilder body = new StringBuilder(": connected\n");
+            // Reconnect right away, the client still waits its minimum delay
+            body.append("retry: 0\n\n");
+
+            for (int i = 0; i < eventsPerConnection; i++, song++) {
+                body.append("id: ").append(song).append('\n');
+                body.append("event: metadata\n");
+                body.append("data: ").append(buildMetadata(feed, song)).append("\n\n");
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            sendBody(exchange, body.toString().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleLongPoll(HttpExchange exchange) throws IOException {
+        long request = longPollRequests.incrementAndGet();
+
+        try {
+            if (injectFaults(exchange)) {
+                return;
+            }
+
+            sleep(longPollHoldMs);
+
+            String feed = exchange.getRequestURI().getPath().substring("/longpoll/".length());
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("ETag", String.format("\"%s-%d\"", feed, request));
+            sendBody(exchange, buildMetadata(feed, request).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMedia(HttpExchange exchange) throws IOException {
+        mediaRequests.incrementAndGet();
+
+        try {
+            if (injectFaults(exchange)) {
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "audio/wav");
+            sendBody(exchange, mediaBody);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * @return Whether the request was answered with an injected error
+     */
+    private boolean injectFaults(HttpExchange exchange) throws IOException {
+        sleep(latencyMs);
+
+        if (serverErrorRate > 0 && ThreadLocalRandom.current().nextDouble() < serverErrorRate) {
+            injectedErrors.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private void sendBody(HttpExchange exchange, byte[] body) throws IOException {
+        long chunkDelayMs = slowBodyChunkDelayMs;
+
+        // Chunked when slow, so the client can't read the length and wait for all of it
+        exchange.sendResponseHeaders(200, chunkDelayMs > 0 ? 0 : body.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            if (chunkDelayMs <= 0) {
+                output.write(body);
+            } else {
+                for (int offset = 0; offset < body.length; offset += SLOW_BODY_CHUNK_BYTES) {
+                    output.write(
+                        body,
+                        offset,
+                        Math.min(SLOW_BODY_CHUNK_BYTES, body.length - offset)
+                    );
+                    output.flush();
+                    sleep(chunkDelayMs);
+                }
+            }
+        }
+
+        bytesSent.addAndGet(body.length);
+    }
+
+    private static String buildMetadata(String feed, long song) {
+        return String.format(
+            "{\"album_title\":\"Album %2$d\",\"artist_name\":\"Artist %2$d\",\"song_title\":\"%1$s song %2$d\",\"artwork_source\":\"\"}",
+            feed,
+            song
+        );
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // One second of 16 bit mono silence
+    private static byte[] buildWav(int sampleRate) {
+        int dataSize = sampleRate * 2;
+        ByteBuffer wav = ByteBuffer.allocate(44 + dataSize).order(ByteOrder.LITTLE_ENDIAN);
+
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + dataSize);
+        wav.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        wav.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16);
+        wav.putShort((short) 1).putShort((short) 1);
+        wav.putInt(sampleRate).putInt(sampleRate * 2);
+        wav.putShort((short) 2).putShort((short) 16);
+        wav.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(dataSize);
+
+        return wav.array();
+    }
+}
@@ -0,0 +1,168 @@
+package us.mediagrid.capacitorjs.plugins.nativeaudio;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link MetadataPoller} executor whose delays run on Robolectric's virtual clock.
+ *
+ * Tasks, delayed or not, are posted to the shadowed main looper and handed to the pool's real
+ * threads once the test idles the looper past their time, so hours of polling take as long
+ * as the requests themselves.
+ */
+public class VirtualClockExecutor extends ScheduledThreadPoolExecutor {
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    public VirtualClockExecutor(int threads) {
+        super(threads);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        VirtualTask task = new VirtualTask(
+            command,
+            SystemClock.uptimeMillis() + unit.toMillis(delay)
+        );
+        handler.postAtTime(task, task.dueAtMs);
+
+        return task;
+    }
+
+    /**
+     * Waits for the requests handed to the pool to finish, in real time. Counts sleeps rather
+     * than reading a clock, so it doesn't matter which one the sandbox virtualizes.
+     *
+     * @return Whether the pool went quiet within the timeout
+     */
+    public boolean awaitQuiescence(long timeoutMs) throws InterruptedException {
+        for (long waitedMs = 0; getActiveCount() > 0 || !getQueue().isEmpty(); waitedMs += 5) {
+            if (waitedMs > timeoutMs) {
+                return false;
+            }
+
+            Thread.sleep(5);
+        }
+
+        return true;
+    }
+
+    private class VirtualTask implements ScheduledFuture<Object>, Runnable {
+
+        private final Runnable command;
+        private final long dueAtMs;
+        // Counted down once the command ran or the task was cancelled
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean cancelled = false;
+        private volatile boolean fired = false;
+        private volatile Throwable failure = null;
+
+        VirtualTask(Runnable command, long dueAtMs) {
+            this.command = command;
+            this.dueAtMs = dueAtMs;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (isShutdown()) {
+                cancel(false);
+            }
+
+            if (cancelled) {
+                return;
+            }
+
+            fired = true;
+            // Not execute(), which goes through schedule() and would post it again
+            VirtualClockExecutor.super.schedule(this::runCommand, 0, TimeUnit.MILLISECONDS);
+        }
+
+        private void runCommand() {
+            try {
+                command.run();
+            } catch (Throwable ex) {
+                failure = ex;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMs - SystemClock.uptimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(
+                getDelay(TimeUnit.MILLISECONDS),
+                other.getDelay(TimeUnit.MILLISECONDS)
+            );
+        }
+
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            if (fired || cancelled) {
+                return false;
+            }
+
+            cancelled = true;
+            handler.removeCallbacks(this);
+            done.countDown();
+
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        /**
+         * Waits in real time, so the looper has to be idled past the task's time by another
+         * thread.
+         */
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            done.await();
+
+            return getResult();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+            if (!done.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+
+            return getResult();
+        }
+
+        private Object getResult() throws ExecutionException {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+
+            return null;
+        }
+    }
+}
@@ -1,183 +1,1330 @@
+/// <reference types="@capacitor/cli" />
+
+declare module '@capacitor/cli' {
+    export interface PluginsConfig {
+        AudioPlayer?: {
+            /**
+             * Android only. The number of players created up front and kept warm
+             * for non-notification audio sources.
+             *
+             * @default 0
+             * @since 2.4.0
+             */
+            playerPoolMinSize?: number;
+
+            /**
+             * Android only. The maximum number of idle players kept for reuse once
+             * their audio source is destroyed. Extra players are released.
+             *
+             * @default 4
+             * @since 2.4.0
+             */
+            playerPoolMaxSize?: number;
+
+            /**
+             * Android only. How long in seconds an idle player is kept before it is released,
+             * as long as more than `playerPoolMinSize` players are idle.
+             *
+             * @default 30
+             * @since 2.4.0
+             */
+            playerPoolIdleTimeout?: number;
+
+            /**
+             * Android only. How many seconds from the start of an audio source are buffered by `preload`.
+             *
+             * @default 5
+             * @since 2.4.0
+             */
+            preloadDuration?: number;
+
+            /**
+             * Android only. The maximum number of audio sources preloaded at once.
+             * When exceeded, the source with the highest `priority` number is dropped.
+             *
+             * @default 5
+             * @since 2.4.0
+             */
+            preloadMaxSources?: number;
+
+            /**
+             * Android only. Memory budget in megabytes for audio buffered by `preload`,
+             * shared by the sources being preloaded and the players that took one over.
+             * Other audio sources buffer as usual.
+             *
+             * @default 8
+             * @since 2.4.0
+             */
+            preloadMemoryBudget?: number;
+
+            /**
+             * Android only. Cache remote (http/https) audio on disk so replaying or re-creating
+             * the same audio doesn't download it again. See the `cache` option of `create`.
+             *
+             * @default false
+             * @since 2.4.0
+             */
+            mediaCacheEnabled?: boolean;
+
+            /**
+             * Android only. The maximum size of the media cache in megabytes.
+             * The least recently used audio is evicted first.
+             *
+             * @default 100
+             * @since 2.4.0
+             */
+            mediaCacheMaxSize?: number;
+
+            /**
+             * Android only. Memory budget in megabytes for small local audio files
+             * (in-app assets and `file://` paths), so looping and replayed sources
+             * don't re-read them from disk. Set to `0` to disable.
+             *
+             * @default 8
+             * @since 2.4.0
+             */
+            assetCacheSize?: number;
+
+            /**
+             * Android only. Local audio files larger than this, in kilobytes, are
+             * not held in memory and keep streaming from disk.
+             *
+             * @default 1024
+             * @since 2.4.0
+             */
+            assetCacheMaxFileSize?: number;
+
+            /**
+             * Android only. Memory budget in megabytes for in-app `artworkSource` images
+             * kept ready for the notification.
+             *
+             * @default 4
+             * @since 2.4.0
+             */
+            artworkCacheSize?: number;
+
+            /**
+             * Android only. In-app `artworkSource` images larger than this (in pixels, either side)
+             * are downsampled once before being handed to the notification.
+             *
+             * @default 512
+             * @since 2.4.0
+             */
+            artworkMaxSize?: number;
+
+            /**
+             * Android only. Metadata updates (from `changeMetadata` or the metadata update URL)
+             * arriving within this many milliseconds of the last notification update are
+             * coalesced into one.
+             *
+             * @default 250
+             * @since 2.4.0
+             */
+            metadataDebounceWindow?: number;
+
+            /**
+             * Android only. The longest time in seconds between metadata update requests
+             * while backing off after failed requests.
+             *
+             * @default 300
+             * @since 2.4.0
+             */
+            metadataUpdateMaxBackoff?: number;
+
+            /**
+             * Android only. Random jitter in percent applied to the metadata update interval
+             * so clients don't all request at the same time.
+             *
+             * @default 10
+             * @since 2.4.0
+             */
+            metadataUpdateJitter?: number;
+
+            /**
+             * Android only. Threads shared by all metadata update requests. Audio sources
+             * with the same `metadataUpdateUrl` share a single request.
+             *
+             * @default 2
+             * @since 2.4.0
+             */
+            metadataPollerThreads?: number;
+
+            /**
+             * Android only. How many metadata feeds can use Server-Sent Events or long-poll
+             * at once, each holding a connection and a thread. Further streaming feeds are
+             * polled until a stream ends and they can take its place. `0` polls every feed.
+             *
+             * @default 4
+             * @since 2.4.0
+             */
+            metadataMaxStreams?: number;
+
+            /**
+             * Android only. How many `lowLatency` sound effect voices can play at once.
+             *
+             * @default 8
+             * @since 2.4.0
+             */
+            soundEffectMaxVoices?: number;
+
+            /**
+             * Android only. Connect to the playback service and warm up the audio pipeline
+             * (decoders and audio output) as soon as the plugin loads, like calling `prewarm`.
+             * The first `create` and `play` then don't pay for it.
+             *
+             * @default false
+             * @since 2.4.0
+             */
+            prewarmOnLoad?: boolean;
+
+            /**
+             * Android only. How many playback threads are shared by all non-notification
+             * audio sources. `0` gives every player a thread of its own, like ExoPlayer does
+             * by default. Otherwise players go to the shared thread with the fewest players,
+             * which saves threads when many sources are created. Preloading and the players
+             * taking over audio loaded by `preload` run on the first shared thread, or on a
+             * preload thread of their own with `0`.
+             *
+             * @default 0
+             * @since 2.4.0
+             */
+            playbackThreads?: number;
+
+            /**
+             * Android only. Run the commands to non-notification audio sources and their
+             * player events on a dedicated thread instead of the main thread, so they don't
+             * wait on WebView input and rendering and don't hold them up either. The
+             * notification audio source always stays on the main thread.
+             *
+             * @default false
+             * @since 2.4.0
+             */
+            audioThread?: boolean;
+        };
+    }
+}
+
 export interface AudioPlayerDefaultParams {
     /**
-     * Any string to differentiate different audio files.
+     * Any string to differentiate different audio files.
+     *
+     * @since 1.0.0
+     */
+    audioId: string;
+}
+
+export interface AudioPlayerPrepareParams extends AudioPlayerDefaultParams {
+    /**
+     * A URI for the audio file to play
+     *
+     * @example A public web source: https://example.com/example.mp3
+     * @since 1.0.0
+     */
+    audioSource: string;
+
+    /**
+     * The album title/name of the audio file to be used on the notification
+     *
+     * @since 2.1.0
+     */
+    albumTitle?: string;
+
+    /**
+     * The artist name of the audio file to be used on the notification
+     *
+     * @since 2.1.0
+     */
+    artistName?: string;
+
+    /**
+     * The title/name of the audio file to be used on the notification
+     *
+     * @since 1.0.0
+     */
+    friendlyTitle: string;
+
+    /**
+     * Whether to use this audio file for the notification.
+     * This is considered the primary audio to play.
+     *
+     * It must be created first and you may only have one at a time.
+     *
+     * @default false
+     * @since 1.0.0
+     */
+    useForNotification: boolean;
+
+    /**
+     * A URI for the album art image to display on the Android/iOS notification.
+     *
+     * Can also be an in-app source. Pulls from `android/app/src/assets/public` and `ios/App/App/public`.
+     * If using [Vite](https://vitejs.dev/guide/assets.html#the-public-directory),
+     * you would put the image in your `public` folder and the build process will copy to `dist`
+     * which in turn will be copied to the Android/iOS assets by Capacitor.
+     *
+     * A PNG is the best option with square dimensions. 1200 x 1200px is a good option.
+     *
+     * @example A public web source: https://example.com/artwork.png
+     * @example An in-app source: images/artwork.png
+     * @since 1.0.0
+     */
+    artworkSource?: string;
+
+    /**
+     * Is this audio for background music/audio.
+     *
+     * Should not be `true` when `useForNotification = true`.
+     *
+     * @default false
+     * @since 1.0.0
+     */
+    isBackgroundMusic?: boolean;
+
+    /**
+     * Whether or not to loop other audio like background music
+     * while the primary audio (`useForNotification = true`) is playing.
+     *
+     * @default false
+     * @since 1.0.0
+     */
+    loop?: boolean;
+
+    /**
+     * Whether or not to show the seek backward button on the OS's notification.
+     * Only has affect when `useForNotification = true`.
+     *
+     * @default true
+     * @since 1.2.0
+     */
+    showSeekBackward?: boolean;
+
+    /**
+     * Whether or not to show the seek forward button on the OS's notification.
+     * Only has affect when `useForNotification = true`.
+     *
+     * @default true
+     * @since 1.2.0
+     */
+    showSeekForward?: boolean;
+
+    /**
+     * Time to seek backward in seconds on the OS's notification.
+     * Only has affect when `showSeekBackward = true`.
+     *
+     * @default 5
+     * @since 2.3.0
+     */
+    seekBackwardTime?: number;
+
+    /**
+     * Time to seek forward in seconds on the OS's notification.
+     * Only has affect when `showSeekForward = true`.
+     *
+     * @default 5
+     * @since 2.3.0
+     */
+    seekForwardTime?: number;
+
+    /**
+     * The URL to fetch metadata updates at the specified interval. Typically used for a radio stream.
+     * See the section on [Metadata Updates](#metadata-updates) for more info.
+     * Only has affect when `useForNotification = true`.
+     *
+     * @since 2.2.0
+     */
+    metadataUpdateUrl?: string;
+
+    /**
+     * The interval to fetch metadata updates in seconds.
+     *
+     * @default 15
+     * @since 2.2.0
+     */
+    metadataUpdateInterval?: number;
+
+    /**
+     * The interval to fetch metadata updates in seconds while the app is in the background.
+     * It is never shorter than `metadataUpdateInterval`.
+     *
+     * Only has affect on Android.
+     *
+     * @default 60
+     * @since 2.4.0
+     */
+    metadataUpdateBackgroundInterval?: number;
+
+    /**
+     * How metadata updates are received from `metadataUpdateUrl`.
+     *
+     * - `poll`: request the URL every `metadataUpdateInterval`
+     * - `sse`: keep a Server-Sent Events (`text/event-stream`) connection open and apply
+     *   each `message` or `metadata` event as it arrives
+     * - `longPoll`: request the URL again as soon as the server answers, with the server
+     *   holding the request until the metadata changes
+     *
+     * Streaming reconnects automatically and falls back to polling if the server doesn't
+     * support it.
+     *
+     * Only has affect on Android.
+     *
+     * @default 'poll'
+     * @since 2.4.0
+     */
+    metadataUpdateMode?: 'poll' | 'sse' | 'longPoll';
+
+    /**
+     * Take the metadata from the stream itself instead of `metadataUpdateUrl`:
+     * Shoutcast/Icecast `StreamTitle` (split into artist and title on `" - "`) and station
+     * name, or ID3 `TIT2`/`TPE1`/`TALB` frames such as in HLS. Updates are in sync with
+     * the audio and go through `onMetadataUpdate` like URL updates. No update requests are
+     * made, `metadataUpdateUrl` is ignored.
+     *
+     * Only has affect on Android.
+     *
+     * @default false
+     * @since 2.4.0
+     */
+    metadataFromStream?: boolean;
+
+    /**
+     * Whether this audio source should go through the media cache when `mediaCacheEnabled` is set.
+     * Live streams should never be cached.
+     *
+     * Only has affect on Android.
+     *
+     * @default true, or false when `metadataUpdateUrl` or `metadataFromStream` is set
+     * @since 2.4.0
+     */
+    cache?: boolean;
+
+    /**
+     * How often in milliseconds this audio source is included in `onTimeUpdate` while
+     * playing. `0` leaves it out.
+     *
+     * Only has affect on Android.
+     *
+     * @default 250
+     * @since 2.4.0
+     */
+    timeUpdateInterval?: number;
+
+    /**
+     * Play this audio source as a sound effect: decoded once and mixed with the other
+     * `lowLatency` sources by a shared low latency mixer instead of a full player. Meant
+     * for short UI and game sounds.
+     *
+     * Every `play` starts a new voice, so the effect can overlap itself. When
+     * `soundEffectMaxVoices` are already playing, the oldest voice is stopped. `seek` is
+     * ignored, `rate` is limited to 0.5 - 2 and the `onAudioEnd` and `onPlaybackStatusChange`
+     * callbacks are not called. `changeAudioSource`, `setQueue`, `enqueue`, `changeMetadata`
+     * and `preload` are rejected. It can't be used for the notification and doesn't need a
+     * notification audio source to exist.
+     *
+     * The source can be a path relative to the app's `public` folder, an `asset:///` or
+     * `file://` URI, or an http(s) URL, which is downloaded once.
+     *
+     * Only has affect on Android.
+     *
+     * @default false
+     * @since 2.4.0
+     */
+    lowLatency?: boolean;
+}
+
+export interface AudioPlayerChangeSourceParams extends AudioPlayerDefaultParams {
+    /**
+     * A URI for the new audio file to play
+     *
+     * @since 1.0.0
+     */
+    source: string;
+
+    /**
+     * Keep playing the current audio while the new source buffers in a second player,
+     * and only switch once it's ready, instead of going silent until it has buffered.
+     * Has no affect on the audio source with `useForNotification = true`.
+     *
+     * Only has affect on Android.
+     *
+     * @default false
+     * @since 2.4.0
+     */
+    seamless?: boolean;
+
+    /**
+     * When `seamless = true` and the audio is playing, fade from the old to the new source
+     * over this many milliseconds. `0` switches at once.
+     *
+     * Only has affect on Android.
+     *
+     * @default 0
+     * @since 2.4.0
+     */
+    crossfadeDuration?: number;
+
+    /**
+     * When `seamless = true`, how many milliseconds to wait for the new source to get ready.
+     * After that, the source is changed in place like without `seamless`. `0` waits forever.
+     *
+     * Only has affect on Android.
+     *
+     * @default 10000
+     * @since 2.4.0
+     */
+    seamlessTimeout?: number;
+}
+
+export interface AudioPlayerQueueItem {
+    /**
+     * A URI for the audio file to play
+     *
+     * @since 2.4.0
+     */
+    source: string;
+
+    /**
+     * @since 2.4.0
+     */
+    albumTitle?: string;
+
+    /**
+     * @since 2.4.0
+     */
+    artistName?: string;
+
+    /**
+     * @since 2.4.0
+     */
+    friendlyTitle?: string;
+
+    /**
+     * Only used for the notification, like `artworkSource` in `create`
+     *
+     * @since 2.4.0
+     */
+    artworkSource?: string;
+
+    /**
+     * Whether to store the item in the media cache, like `cache` in `create`
+     *
+     * @default whether the audio source itself is cached
+     * @since 2.4.0
+     */
+    cache?: boolean;
+}
+
+export interface AudioPlayerQueueParams extends AudioPlayerDefaultParams {
+    /**
+     * @since 2.4.0
+     */
+    items: AudioPlayerQueueItem[];
+}
+
+export interface AudioPlayerQueuePosition {
+    /**
+     * The index of the current item in the queue
+     *
+     * @since 2.4.0
+     */
+    index: number;
+
+    /**
+     * The number of items in the queue, `1` if no queue was set
+     *
+     * @since 2.4.0
+     */
+    size: number;
+}
+
+export interface AudioPlayerSkipResult extends AudioPlayerQueuePosition {
+    /**
+     * `false` if there was no item to skip to
+     *
+     * @since 2.4.0
+     */
+    skipped: boolean;
+}
+
+export interface AudioPlayerQueueItemChangeListenerEvent extends AudioPlayerQueuePosition {
+    /**
+     * The source of the item now playing
+     *
+     * @since 2.4.0
+     */
+    source: string;
+}
+
+export interface AudioPlayerListenerParams {
+    /**
+     * The `audioId` set when `create` was called.
+     *
+     * @since 1.0.0
+     */
+    audioId: string;
+}
+
+export interface AudioPlayerTimeUpdate {
+    /**
+     * @since 2.4.0
+     */
+    audioId: string;
+
+    /**
+     * @since 2.4.0
+     */
+    currentTime: number;
+
+    /**
+     * @since 2.4.0
+     */
+    duration: number;
+}
+
+export interface AudioPlayerTimeUpdateListenerEvent {
+    /**
+     * The playing audio sources that were due, by their `timeUpdateInterval`
+     *
+     * @since 2.4.0
+     */
+    updates: AudioPlayerTimeUpdate[];
+}
+
+export interface AudioPlayerState {
+    /**
+     * @since 2.4.0
+     */
+    status: 'playing' | 'paused' | 'stopped';
+
+    /**
+     * Whether audio is actually coming out, `false` while buffering
+     *
+     * @since 2.4.0
+     */
+    isPlaying: boolean;
+
+    /**
+     * In seconds
+     *
+     * @since 2.4.0
+     */
+    currentTime: number;
+
+    /**
+     * In seconds, `-1` if unknown
+     *
+     * @since 2.4.0
+     */
+    duration: number;
+
+    /**
+     * How far the audio is buffered, in seconds
+     *
+     * @since 2.4.0
+     */
+    bufferedTime: number;
+
+    /**
+     * @since 2.4.0
+     */
+    rate: number;
+
+    /**
+     * @since 2.4.0
+     */
+    volume: number;
+}
+
+export interface AudioPlayerMetrics {
+    /**
+     * @since 2.4.0
+     */
+    audioId: string;
+
+    /**
+     * Milliseconds from `create` until the audio was first ready to play, `-1` if not yet
+     *
+     * @since 2.4.0
+     */
+    createToReadyMs: number;
+
+    /**
+     * Milliseconds from the last time a source was prepared (`initialize`,
+     * `changeAudioSource`, `setQueue`) until it was ready to play, `-1` if not yet
+     *
+     * @since 2.4.0
+     */
+    prepareToReadyMs: number;
+
+    /**
+     * Milliseconds from the last `play` until audio started coming out, `-1` if not yet
+     *
+     * @since 2.4.0
+     */
+    playToFirstAudioMs: number;
+
+    /**
+     * How many times playback stalled to buffer after it was ready
+     *
+     * @since 2.4.0
+     */
+    rebufferCount: number;
+
+    /**
+     * Total milliseconds spent stalled
+     *
+     * @since 2.4.0
+     */
+    rebufferDurationMs: number;
+
+    /**
+     * @since 2.4.0
+     */
+    bytesLoaded: number;
+
+    /**
+     * The latest bandwidth estimate in bits per second, `0` if none yet
+     *
+     * @since 2.4.0
+     */
+    bitrateEstimate: number;
+
+    /**
+     * Loads that failed and were retried or gave up
+     *
+     * @since 2.4.0
+     */
+    loadErrors: number;
+
+    /**
+     * The audio decoder in use, `null` if none was initialized yet
+     *
+     * @since 2.4.0
+     */
+    decoderName: string | null;
+
+    /**
+     * How long initializing the audio decoder took in milliseconds, `-1` if not yet
+     *
+     * @since 2.4.0
+     */
+    decoderInitMs: number;
+
+    /**
+     * Times the audio output ran out of data, which is heard as a glitch
+     *
+     * @since 2.4.0
+     */
+    underruns: number;
+
+    /**
+     * @since 2.4.0
+     */
+    audioSinkErrors: number;
+
+    /**
+     * @since 2.4.0
+     */
+    playerErrors: number;
+}
+
+export interface AudioPlayerMetricsListenerEvent {
+    /**
+     * The metrics of every audio source
+     *
+     * @since 2.4.0
+     */
+    metrics: AudioPlayerMetrics[];
+}
+
+export interface AudioPlayerListenerResult {
+    callbackId: string;
+}
+
+export interface AudioPlayerMetadataUpdateListenerEvent {
+    /**
+     * The album title
+     *
+     * @since 2.2.0
+     */
+    album_title: string;
+
+    /**
+     * The artist name
+     *
+     * @since 2.2.0
+     */
+    artist_name: string;
+
+    /**
+     * The song title
+     *
+     * @since 2.2.0
+     */
+    song_title: string;
+
+    /**
+     * A URI for the album art image to display on the Android/iOS notification.
+     *
+     * @since 2.2.0
+     */
+    artwork_source: string;
+}
+
+export interface AudioPlayerPoolStats {
+    /**
+     * Players currently idle in the pool
+     *
+     * @since 2.4.0
+     */
+    idle: number;
+
+    /**
+     * Players currently handed out to audio sources
+     *
+     * @since 2.4.0
+     */
+    inUse: number;
+
+    /**
+     * Players built since the service started
+     *
+     * @since 2.4.0
+     */
+    created: number;
+
+    /**
+     * Times an idle player was handed out instead of building a new one
+     *
+     * @since 2.4.0
+     */
+    reused: number;
+
+    /**
+     * Players returned to the pool when their audio source was destroyed
+     *
+     * @since 2.4.0
+     */
+    returned: number;
+
+    /**
+     * Idle players released after `playerPoolIdleTimeout`
+     *
+     * @since 2.4.0
+     */
+    evicted: number;
+
+    /**
+     * Players released on return because the pool was full
+     *
+     * @since 2.4.0
+     */
+    discarded: number;
+
+    /**
+     * The playback threads the players share
+     *
+     * @since 2.4.0
+     */
+    playbackThreads: AudioPlayerPlaybackThreadStats;
+}
+
+export interface AudioPlayerPlaybackThreadStats {
+    /**
+     * How many shared playback threads there are (`playbackThreads`)
+     *
+     * @since 2.4.0
+     */
+    count: number;
+
+    /**
+     * The number of live threads in the app's process
+     *
+     * @since 2.4.0
+     */
+    processThreads: number;
+
+    /**
+     * Each shared playback thread, and the preload thread when there are none, keyed by its
+     * name
+     *
+     * @since 2.4.0
+     */
+    threads: { [name: string]: AudioPlayerPlaybackLoopStats };
+}
+
+export interface AudioPlayerPlaybackLoopStats {
+    /**
+     * Players on this thread
+     *
+     * @since 2.4.0
+     */
+    players: number;
+
+    /**
+     * Players on this thread that are playing
+     *
+     * @since 2.4.0
+     */
+    playing: number;
+
+    /**
+     * Latency probes run while players were playing, one every 500ms
+     *
+     * @since 2.4.0
+     */
+    probes: number;
+
+    /**
+     * Probes that waited more than 10ms in the thread's queue, which risks underruns
+     *
+     * @since 2.4.0
+     */
+    lateProbes: number;
+
+    /**
+     * The average time in milliseconds a probe waited in the thread's queue
+     *
+     * @since 2.4.0
+     */
+    averageLatencyMs: number;
+
+    /**
+     * The longest time in milliseconds a probe waited in the thread's queue
+     *
+     * @since 2.4.0
+     */
+    maxLatencyMs: number;
+}
+
+export interface AudioPlayerPrewarmResult {
+    /**
+     * How long the pre-warm took in milliseconds
+     *
+     * @since 2.4.0
+     */
+    durationMs: number;
+
+    /**
+     * How many decoders of common stream formats were loaded
+     *
+     * @since 2.4.0
+     */
+    decoders: number;
+
+    /**
+     * Whether silence was played through the audio output
+     *
+     * @since 2.4.0
+     */
+    audioOutput: boolean;
+}
+
+export interface AudioPlayerPreloadParams {
+    /**
+     * The `audioId`s of non-notification audio sources to preload.
+     * They must be created but not initialized yet.
+     *
+     * @since 2.4.0
+     */
+    audioIds: string[];
+
+    /**
+     * Lower numbers are preloaded first.
+     *
+     * @default 0
+     * @since 2.4.0
+     */
+    priority?: number;
+}
+
+export interface AudioPlayerPreloadStateResult {
+    /**
+     * The preload state keyed by `audioId`.
+     *
+     * @since 2.4.0
+     */
+    states: { [audioId: string]: 'none' | 'preloading' | 'preloaded' | 'error' };
+}
+
+export interface AudioPlayerCacheStats {
+    /**
+     * Whether the media cache is enabled (`mediaCacheEnabled`)
+     *
+     * @since 2.4.0
+     */
+    enabled: boolean;
+
+    /**
+     * The size cap of the cache in bytes
+     *
+     * @since 2.4.0
+     */
+    maxBytes: number;
+
+    /**
+     * Bytes currently used by the cache
+     *
+     * @since 2.4.0
+     */
+    usedBytes: number;
+
+    /**
+     * The number of cached audio resources
+     *
+     * @since 2.4.0
+     */
+    entries: number;
+
+    /**
+     * Bytes served from the cache instead of the network since the service started
+     *
+     * @since 2.4.0
+     */
+    bytesReadFromCache: number;
+
+    /**
+     * The number of requests that bypassed the cache since the service started
+     *
+     * @since 2.4.0
+     */
+    cacheBypassCount: number;
+
+    /**
+     * The in-memory cache of small local audio files
+     *
+     * @since 2.4.0
+     */
+    assets: AudioPlayerAssetCacheStats;
+}
+
+export interface AudioPlayerAssetCacheStats {
+    /**
+     * The memory budget in bytes (`assetCacheSize`)
+     *
+     * @since 2.4.0
+     */
+    maxBytes: number;
+
+    /**
+     * Files larger than this many bytes aren't cached (`assetCacheMaxFileSize`)
+     *
+     * @since 2.4.0
+     */
+    maxFileBytes: number;
+
+    /**
+     * Bytes currently held in memory
+     *
+     * @since 2.4.0
+     */
+    usedBytes: number;
+
+    /**
+     * The number of cached files
+     *
+     * @since 2.4.0
+     */
+    entries: number;
+
+    /**
+     * Opens served from memory
+     *
+     * @since 2.4.0
+     */
+    hits: number;
+
+    /**
+     * Opens that read the file from disk and cached it
+     *
+     * @since 2.4.0
+     */
+    misses: number;
+
+    /**
+     * Opens of files that were too large, or compressed in the APK, and streamed from disk
+     *
+     * @since 2.4.0
+     */
+    tooLarge: number;
+}
+
+export interface AudioPlayerMainThreadStats {
+    /**
+     * How many times work ran on the main thread
+     *
+     * @since 2.4.0
+     */
+    count: number;
+
+    /**
+     * @since 2.4.0
+     */
+    lastMs: number;
+
+    /**
+     * @since 2.4.0
+     */
+    maxMs: number;
+
+    /**
+     * @since 2.4.0
+     */
+    averageMs: number;
+}
+
+export interface AudioPlayerMetadataStats {
+    /**
+     * Metadata updates that changed the notification
+     *
+     * @since 2.4.0
+     */
+    published: number;
+
+    /**
+     * Metadata updates dropped because nothing changed
      *
-     * @since 1.0.0
+     * @since 2.4.0
      */
-    audioId: string;
-}
+    suppressed: number;
 
-export interface AudioPlayerPrepareParams extends AudioPlayerDefaultParams {
     /**
-     * A URI for the audio file to play
+     * Metadata updates replaced by a newer one within `metadataDebounceWindow`
      *
-     * @example A public web source: https://example.com/example.mp3
-     * @since 1.0.0
+     * @since 2.4.0
      */
-    audioSource: string;
+    coalesced: number;
 
     /**
-     * The album title/name of the audio file to be used on the notification
+     * Time spent on the player's thread applying metadata updates, the main thread unless
+     * `audioThread` is enabled and it isn't the notification audio source
      *
-     * @since 2.1.0
+     * @since 2.4.0
      */
-    albumTitle?: string;
+    mainThread: AudioPlayerMainThreadStats;
+}
 
+export interface AudioPlayerMetadataPollerStats {
     /**
-     * The artist name of the audio file to be used on the notification
+     * Distinct metadata update URLs being polled
      *
-     * @since 2.1.0
+     * @since 2.4.0
      */
-    artistName?: string;
+    feeds: number;
 
     /**
-     * The title/name of the audio file to be used on the notification
+     * Audio sources subscribed to those URLs
      *
-     * @since 1.0.0
+     * @since 2.4.0
      */
-    friendlyTitle: string;
+    subscribers: number;
 
     /**
-     * Whether to use this audio file for the notification.
-     * This is considered the primary audio to play.
+     * Feeds using Server-Sent Events or long-poll
      *
-     * It must be created first and you may only have one at a time.
+     * @since 2.4.0
+     */
+    streams: number;
+
+    /**
+     * @since 2.4.0
+     */
+    requests: number;
+
+    /**
+     * Requests answered with `304 Not Modified` or an unchanged body
      *
-     * @default false
-     * @since 1.0.0
+     * @since 2.4.0
      */
-    useForNotification: boolean;
+    notModified: number;
 
     /**
-     * A URI for the album art image to display on the Android/iOS notification.
+     * @since 2.4.0
+     */
+    failures: number;
+
+    /**
+     * Stream connections made, including reconnects
      *
-     * Can also be an in-app source. Pulls from `android/app/src/assets/public` and `ios/App/App/public`.
-     * If using [Vite](https://vitejs.dev/guide/assets.html#the-public-directory),
-     * you would put the image in your `public` folder and the build process will copy to `dist`
-     * which in turn will be copied to the Android/iOS assets by Capacitor.
+     * @since 2.4.0
+     */
+    streamConnects: number;
+
+    /**
+     * @since 2.4.0
+     */
+    streamEvents: number;
+
+    /**
+     * Streams that fell back to polling
      *
-     * A PNG is the best option with square dimensions. 1200 x 1200px is a good option.
+     * @since 2.4.0
+     */
+    streamFallbacks: number;
+
+    /**
+     * Streams holding one of the `metadataMaxStreams` slots
      *
-     * @example A public web source: https://example.com/artwork.png
-     * @example An in-app source: images/artwork.png
-     * @since 1.0.0
+     * @since 2.4.0
      */
-    artworkSource?: string;
+    activeStreams: number;
 
     /**
-     * Is this audio for background music/audio.
+     * Streaming feeds polled while waiting for a free stream slot
      *
-     * Should not be `true` when `useForNotification = true`.
+     * @since 2.4.0
+     */
+    queuedStreams: number;
+
+    /**
+     * @since 2.4.0
+     */
+    threads: number;
+
+    /**
+     * @since 2.4.0
+     */
+    activeThreads: number;
+
+    /**
+     * Updates waiting to run, including the scheduled ones
      *
-     * @default false
-     * @since 1.0.0
+     * @since 2.4.0
      */
-    isBackgroundMusic?: boolean;
+    queued: number;
 
     /**
-     * Whether or not to loop other audio like background music
-     * while the primary audio (`useForNotification = true`) is playing.
+     * @since 2.4.0
+     */
+    completedTasks: number;
+
+    /**
+     * Threads building notification metadata
      *
-     * @default false
-     * @since 1.0.0
+     * @since 2.4.0
      */
-    loop?: boolean;
+    executorActiveThreads: number;
 
     /**
-     * Whether or not to show the seek backward button on the OS's notification.
-     * Only has affect when `useForNotification = true`.
+     * Notification metadata builds waiting for a thread
      *
-     * @default true
-     * @since 1.2.0
+     * @since 2.4.0
      */
-    showSeekBackward?: boolean;
+    executorQueued: number;
+}
 
+export interface AudioPlayerBatchOperation extends AudioPlayerDefaultParams {
     /**
-     * Whether or not to show the seek forward button on the OS's notification.
-     * Only has affect when `useForNotification = true`.
+     * @since 2.4.0
+     */
+    method:
+        | 'play'
+        | 'pause'
+        | 'seek'
+        | 'stop'
+        | 'setVolume'
+        | 'setRate'
+        | 'getDuration'
+        | 'getCurrentTime'
+        | 'isPlaying';
+
+    /**
+     * Required for `seek`
      *
-     * @default true
-     * @since 1.2.0
+     * @since 2.4.0
      */
-    showSeekForward?: boolean;
+    timeInSeconds?: number;
 
     /**
-     * Time to seek backward in seconds on the OS's notification.
-     * Only has affect when `showSeekBackward = true`.
+     * Required for `setVolume`
      *
-     * @default 5
-     * @since 2.3.0
+     * @since 2.4.0
      */
-    seekBackwardTime?: number;
+    volume?: number;
 
     /**
-     * Time to seek forward in seconds on the OS's notification.
-     * Only has affect when `showSeekForward = true`.
+     * Required for `setRate`
      *
-     * @default 5
-     * @since 2.3.0
+     * @since 2.4.0
      */
-    seekForwardTime?: number;
+    rate?: number;
+}
 
+export interface AudioPlayerBatchOperationResult {
     /**
-     * The URL to fetch metadata updates at the specified interval. Typically used for a radio stream.
-     * See the section on [Metadata Updates](#metadata-updates) for more info.
-     * Only has affect when `useForNotification = true`.
+     * @since 2.4.0
+     */
+    audioId: string;
+
+    /**
+     * @since 2.4.0
+     */
+    method: AudioPlayerBatchOperation['method'];
+
+    /**
+     * @since 2.4.0
+     */
+    success: boolean;
+
+    /**
+     * Set when `success = false`
      *
-     * @since 2.2.0
+     * @since 2.4.0
      */
-    metadataUpdateUrl?: string;
+    error?: string;
 
     /**
-     * The interval to fetch metadata updates in seconds.
+     * Set for `getDuration`
      *
-     * @default 15
-     * @since 2.2.0
+     * @since 2.4.0
      */
-    metadataUpdateInterval?: number;
-}
+    duration?: number;
 
-export interface AudioPlayerListenerParams {
     /**
-     * The `audioId` set when `create` was called.
+     * Set for `getCurrentTime`
      *
-     * @since 1.0.0
+     * @since 2.4.0
      */
-    audioId: string;
-}
+    currentTime?: number;
 
-export interface AudioPlayerListenerResult {
-    callbackId: string;
+    /**
+     * Set for `isPlaying`
+     *
+     * @since 2.4.0
+     */
+    isPlaying?: boolean;
 }
 
-export interface AudioPlayerMetadataUpdateListenerEvent {
+export interface AudioPlayerSoundEffectStats {
     /**
-     * The album title
+     * Loaded `lowLatency` audio sources
      *
-     * @since 2.2.0
+     * @since 2.4.0
      */
-    album_title: string;
+    effects: number;
 
     /**
-     * The artist name
+     * Voices being tracked, including ones that finished on their own until reused
      *
-     * @since 2.2.0
+     * @since 2.4.0
      */
-    artist_name: string;
+    voices: number;
 
     /**
-     * The song title
-     *
-     * @since 2.2.0
+     * @since 2.4.0
      */
-    song_title: string;
+    maxVoices: number;
 
     /**
-     * A URI for the album art image to display on the Android/iOS notification.
+     * @since 2.4.0
+     */
+    plays: number;
+
+    /**
+     * Voices stopped to make room for a new one
      *
-     * @since 2.2.0
+     * @since 2.4.0
      */
-    artwork_source: string;
+    stolenVoices: number;
 }
 
 export interface AudioPlayerPlugin {
@@ -204,9 +1351,54 @@ export interface AudioPlayerPlugin {
      * or changing the primary audio before it is playing to accommodate different durations
      * that a user can choose from.
      *
+     * With `seamless = true` on Android, it resolves once the new source is ready and playing
+     * in place of the old one.
+     *
      * @since 1.0.0
      */
-    changeAudioSource(params: AudioPlayerDefaultParams & { source: string }): Promise<void>;
+    changeAudioSource(params: AudioPlayerChangeSourceParams): Promise<void>;
+
+    /**
+     * Play a list of audio files back to back on the audio source's player,
+     * replacing what it was playing. The next item is buffered ahead of time so
+     * there is no gap between items, and each item's metadata is shown on the
+     * notification while it plays. With `loop = true`, the whole queue repeats.
+     *
+     * The audio source must be initialized first. `onAudioEnd` fires after the last item.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    setQueue(params: AudioPlayerQueueParams & { startIndex?: number }): Promise<void>;
+
+    /**
+     * Add audio files to the end of the audio source's queue. Without a queue, the
+     * current audio becomes the first item.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    enqueue(params: AudioPlayerQueueParams): Promise<void>;
+
+    /**
+     * Skip to the next item in the queue.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    skipNext(params: AudioPlayerDefaultParams): Promise<AudioPlayerSkipResult>;
+
+    /**
+     * Skip to the previous item in the queue.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    skipPrevious(params: AudioPlayerDefaultParams): Promise<AudioPlayerSkipResult>;
 
     /**
      * Change the associated metadata of an existing audio source
@@ -231,6 +1423,24 @@ export interface AudioPlayerPlugin {
      */
     updateMetadata(params: AudioPlayerDefaultParams): Promise<void>;
 
+    /**
+     * Get the counters of metadata updates for the audio source.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    getMetadataStats(params: AudioPlayerDefaultParams): Promise<AudioPlayerMetadataStats>;
+
+    /**
+     * Get the counters of the metadata update poller shared by all audio sources.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    getMetadataPollerStats(): Promise<AudioPlayerMetadataPollerStats>;
+
     /**
      * Get the duration of the audio source.
      *
@@ -299,6 +1509,45 @@ export interface AudioPlayerPlugin {
      */
     isPlaying(params: AudioPlayerDefaultParams): Promise<{ isPlaying: boolean }>;
 
+    /**
+     * Get the whole playback state of the audio source at once.
+     *
+     * On Android, this and the `getDuration`, `getCurrentTime` and `isPlaying` methods
+     * answer right away from the last known state instead of waiting on the main thread.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    getState(params: AudioPlayerDefaultParams): Promise<AudioPlayerState>;
+
+    /**
+     * Get the playback quality metrics of the audio source, like how long it took to get
+     * ready and how often it stalled.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    getMetrics(params: AudioPlayerDefaultParams): Promise<AudioPlayerMetrics>;
+
+    /**
+     * Run several operations in one call, e.g. to start many audio sources together.
+     *
+     * The whole batch is validated first and rejected without running anything if an
+     * operation is invalid. The operations then run in order, all at once on the main
+     * thread (or the `audioThread`), and the result of each one is returned in the same
+     * order. With `audioThread`, operations on the notification audio source run on the
+     * main thread, separately from the others.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    batch(params: {
+        ops: AudioPlayerBatchOperation[];
+    }): Promise<{ results: AudioPlayerBatchOperationResult[] }>;
+
     /**
      * Destroy all resources for the audio source.
      * The audio source with `useForNotification = true` must be destroyed last.
@@ -307,6 +1556,80 @@ export interface AudioPlayerPlugin {
      */
     destroy(params: AudioPlayerDefaultParams): Promise<void>;
 
+    /**
+     * Get the counters of the player pool used for non-notification audio sources.
+     *
+     * An audio source must be created first.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    getPlayerPoolStats(): Promise<AudioPlayerPoolStats>;
+
+    /**
+     * Get the counters of the sound effect mixer used by `lowLatency` audio sources.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    getSoundEffectStats(): Promise<AudioPlayerSoundEffectStats>;
+
+    /**
+     * Buffer the start of one or more audio sources ahead of time so `play` starts right away
+     * once they are initialized. See the `preload*` config options for how much is buffered.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    preload(params: AudioPlayerPreloadParams): Promise<void>;
+
+    /**
+     * Get the preload state of one or more audio sources.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    getPreloadState(params: { audioIds: string[] }): Promise<AudioPlayerPreloadStateResult>;
+
+    /**
+     * Connect to the playback service and warm up the audio pipeline ahead of the first
+     * audio source: common decoders are loaded and a moment of silence is played at volume 0
+     * so the audio output is set up. Calling it again resolves with the first result.
+     *
+     * Can be called before any audio source is created. See also `prewarmOnLoad`.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    prewarm(): Promise<AudioPlayerPrewarmResult>;
+
+    /**
+     * Get the usage of the media cache.
+     *
+     * An audio source must be created first.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    getCacheStats(): Promise<AudioPlayerCacheStats>;
+
+    /**
+     * Remove all audio from the media cache.
+     *
+     * An audio source must be created first.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    clearCache(): Promise<void>;
+
     /**
      * Register a callback for when the app comes to the foreground.
      *
@@ -347,6 +1670,20 @@ export interface AudioPlayerPlugin {
         callback: () => void,
     ): Promise<AudioPlayerListenerResult>;
 
+    /**
+     * Registers a callback for when the audio source moves to another item of its queue,
+     * whether it reached the end of an item, `skipNext`/`skipPrevious` was called or
+     * the notification's buttons were used.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    onQueueItemChange(
+        params: AudioPlayerListenerParams,
+        callback: (result: AudioPlayerQueueItemChangeListenerEvent) => void,
+    ): Promise<AudioPlayerListenerResult>;
+
     /**
      * Registers a callback for when state of playback for the audio source has changed by external controls.
      * This should be used to update your UI when the notification/external controls are used to control the playback.
@@ -374,4 +1711,35 @@ export interface AudioPlayerPlugin {
         params: AudioPlayerListenerParams,
         callback: (result: AudioPlayerMetadataUpdateListenerEvent) => void,
     ): Promise<AudioPlayerListenerResult>;
+
+    /**
+     * Registers a callback for the current time of all playing audio sources, instead of
+     * polling `getCurrentTime`. Sources are updated at their `timeUpdateInterval` and all
+     * sources due at the same time are sent in one event. Nothing is sent while nothing
+     * is playing.
+     *
+     * Pass `{}` as `params`. Registering again replaces the previous callback.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    onTimeUpdate(
+        params: Record<string, never>,
+        callback: (result: AudioPlayerTimeUpdateListenerEvent) => void,
+    ): Promise<AudioPlayerListenerResult>;
+
+    /**
+     * Registers a callback receiving the playback quality metrics of all audio sources
+     * every `interval` milliseconds (at least 1000). Registering again replaces the
+     * previous callback.
+     *
+     * Only available on Android.
+     *
+     * @since 2.4.0
+     */
+    onMetrics(
+        params: { interval?: number },
+        callback: (result: AudioPlayerMetricsListenerEvent) => void,
+    ): Promise<AudioPlayerListenerResult>;
 }
@@ -1,12 +1,30 @@
 import { WebPlugin } from '@capacitor/core';
 
 import type {
+    AudioPlayerBatchOperation,
+    AudioPlayerBatchOperationResult,
+    AudioPlayerCacheStats,
+    AudioPlayerChangeSourceParams,
     AudioPlayerDefaultParams,
     AudioPlayerListenerParams,
     AudioPlayerListenerResult,
+    AudioPlayerMetadataPollerStats,
+    AudioPlayerMetadataStats,
     AudioPlayerMetadataUpdateListenerEvent,
+    AudioPlayerMetrics,
+    AudioPlayerMetricsListenerEvent,
     AudioPlayerPlugin,
+    AudioPlayerPoolStats,
+    AudioPlayerPreloadParams,
+    AudioPlayerPreloadStateResult,
     AudioPlayerPrepareParams,
+    AudioPlayerPrewarmResult,
+    AudioPlayerQueueItemChangeListenerEvent,
+    AudioPlayerQueueParams,
+    AudioPlayerSkipResult,
+    AudioPlayerSoundEffectStats,
+    AudioPlayerState,
+    AudioPlayerTimeUpdateListenerEvent,
 } from './definitions';
 
 export class AudioPlayerWeb extends WebPlugin implements AudioPlayerPlugin {
@@ -18,7 +36,23 @@ export class AudioPlayerWeb extends WebPlugin implements AudioPlayerPlugin {
         throw this.unimplemented('Not implemented on web.');
     }
 
-    changeAudioSource(params: AudioPlayerDefaultParams & { source: string }): Promise<void> {
+    changeAudioSource(params: AudioPlayerChangeSourceParams): Promise<void> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    setQueue(params: AudioPlayerQueueParams & { startIndex?: number }): Promise<void> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    enqueue(params: AudioPlayerQueueParams): Promise<void> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    skipNext(params: AudioPlayerDefaultParams): Promise<AudioPlayerSkipResult> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    skipPrevious(params: AudioPlayerDefaultParams): Promise<AudioPlayerSkipResult> {
         throw this.unimplemented('Not implemented on web.');
     }
 
@@ -35,6 +69,14 @@ export class AudioPlayerWeb extends WebPlugin implements AudioPlayerPlugin {
         throw this.unimplemented('Not implemented on web.');
     }
 
+    getMetadataStats(params: AudioPlayerDefaultParams): Promise<AudioPlayerMetadataStats> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    getMetadataPollerStats(): Promise<AudioPlayerMetadataPollerStats> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
     getDuration(params: AudioPlayerDefaultParams): Promise<{ duration: number }> {
         throw this.unimplemented('Not implemented on web.');
     }
@@ -71,10 +113,52 @@ export class AudioPlayerWeb extends WebPlugin implements AudioPlayerPlugin {
         throw this.unimplemented('Not implemented on web.');
     }
 
+    getState(params: AudioPlayerDefaultParams): Promise<AudioPlayerState> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    getMetrics(params: AudioPlayerDefaultParams): Promise<AudioPlayerMetrics> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    batch(params: {
+        ops: AudioPlayerBatchOperation[];
+    }): Promise<{ results: AudioPlayerBatchOperationResult[] }> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
     destroy(params: AudioPlayerDefaultParams): Promise<void> {
         throw this.unimplemented('Not implemented on web.');
     }
 
+    getPlayerPoolStats(): Promise<AudioPlayerPoolStats> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    getSoundEffectStats(): Promise<AudioPlayerSoundEffectStats> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    preload(params: AudioPlayerPreloadParams): Promise<void> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    getPreloadState(params: { audioIds: string[] }): Promise<AudioPlayerPreloadStateResult> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    prewarm(): Promise<AudioPlayerPrewarmResult> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    getCacheStats(): Promise<AudioPlayerCacheStats> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    clearCache(): Promise<void> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
     onAppGainsFocus(
         params: AudioPlayerListenerParams,
         callback: () => void,
@@ -103,6 +187,13 @@ export class AudioPlayerWeb extends WebPlugin implements AudioPlayerPlugin {
         throw this.unimplemented('Not implemented on web.');
     }
 
+    onQueueItemChange(
+        params: AudioPlayerListenerParams,
+        callback: (result: AudioPlayerQueueItemChangeListenerEvent) => void,
+    ): Promise<AudioPlayerListenerResult> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
     onPlaybackStatusChange(
         params: AudioPlayerListenerParams,
         callback: (result: { status: 'playing' | 'paused' | 'stopped' }) => void,
@@ -116,4 +207,18 @@ export class AudioPlayerWeb extends WebPlugin implements AudioPlayerPlugin {
     ): Promise<AudioPlayerListenerResult> {
         throw this.unimplemented('Not implemented on web.');
     }
+
+    onTimeUpdate(
+        params: Record<string, never>,
+        callback: (result: AudioPlayerTimeUpdateListenerEvent) => void,
+    ): Promise<AudioPlayerListenerResult> {
+        throw this.unimplemented('Not implemented on web.');
+    }
+
+    onMetrics(
+        params: { interval?: number },
+        callback: (result: AudioPlayerMetricsListenerEvent) => void,
+    ): Promise<AudioPlayerListenerResult> {
+        throw this.unimplemented('Not implemented on web.');
+    }
 }